@@ -0,0 +1,15 @@
+package dev.mkopp.mysite.ai.chat.application.port.out;
+
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Bookkeeping of the blog post chunks in the retrieval index. The chunks themselves are written
+ * and searched through the {@link org.springframework.ai.vectorstore.VectorStore}.
+ */
+public interface BlogPostChunkRepository {
+
+    Set<String> findChunkIds(UUID blogPostId);
+
+    int deleteByBlogPostId(UUID blogPostId);
+}
@@ -0,0 +1,20 @@
+package dev.mkopp.mysite.ai.chat.application.port.out;
+
+import java.util.List;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.vectorstore.filter.Filter;
+
+/**
+ * Lexical search over the blog post chunks of the retrieval index, complementing the similarity
+ * search of the {@link org.springframework.ai.vectorstore.VectorStore}.
+ */
+public interface BlogPostChunkTextSearch {
+
+    /**
+     * Chunks containing any of the query's terms and matching the filter expression, best ranked
+     * first; a {@code null} filter matches every chunk. The document score is the full-text rank,
+     * which is not comparable to a vector similarity.
+     */
+    List<Document> searchText(String query, Filter.Expression filterExpression, int topK);
+}
@@ -0,0 +1,26 @@
+package dev.mkopp.mysite.ai.chat.application.port.out;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Read and housekeeping access to the persisted chat memory, next to the
+ * {@link org.springframework.ai.chat.memory.ChatMemoryRepository} used by the chat advisors.
+ */
+public interface ChatHistoryRepository {
+
+    /**
+     * Messages of the conversation's current window. The first page holds the newest messages,
+     * every page is ordered oldest first; an unpaged request returns the whole window.
+     */
+    Page<Message> findPage(String conversationId, Pageable pageable);
+
+    /**
+     * Deletes every conversation without activity since the cutoff and returns their IDs.
+     */
+    List<String> deleteIdleSince(Instant cutoff);
+}
@@ -0,0 +1,21 @@
+package dev.mkopp.mysite.ai.chat.application.port.out;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Persistent store of embeddings keyed by model, output dimensions and the SHA-256 of the
+ * embedded text, hex encoded.
+ */
+public interface EmbeddingCacheRepository {
+
+    /**
+     * Stored embeddings for the given hashes; hashes without an entry are missing from the result.
+     */
+    Map<String, float[]> findAll(String model, int dimensions, Collection<String> textHashes);
+
+    /**
+     * Stores the embeddings by text hash, keeping entries that already exist.
+     */
+    void saveAll(String model, int dimensions, Map<String, float[]> embeddingsByTextHash);
+}
@@ -1,8 +1,20 @@
 package dev.mkopp.mysite.ai.chat.application.service;
 
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import dev.mkopp.mysite.ai.chat.application.port.out.ChatHistoryRepository;
+import lombok.RequiredArgsConstructor;
+
 @Service
+@RequiredArgsConstructor
 public class AiChatService {
 
+    private final ChatHistoryRepository chatHistoryRepository;
+
+    public Page<Message> getHistory(String conversationId, Pageable pageable) {
+        return chatHistoryRepository.findPage(conversationId, pageable);
+    }
 }
@@ -0,0 +1,160 @@
+package dev.mkopp.mysite.ai.chat.application.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.transformer.splitter.TokenTextSplitter;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.modulith.events.ApplicationModuleListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+
+import dev.mkopp.mysite.ai.chat.application.port.out.BlogPostChunkRepository;
+import dev.mkopp.mysite.blog.api.BlogPostApi;
+import dev.mkopp.mysite.blog.api.dto.BlogPostContentDto;
+import dev.mkopp.mysite.blog.api.event.BlogPostDeletedEvent;
+import dev.mkopp.mysite.blog.api.event.BlogPostPublishedEvent;
+import dev.mkopp.mysite.blog.api.event.BlogPostUpdatedEvent;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps the retrieval index of the chat in sync with the blog.
+ * <p>
+ * Every post is split into token chunks. A chunk's ID is derived from the post ID and the hash of
+ * its text and metadata, so re-indexing an edited post embeds only the chunks that changed and
+ * deletes only the chunks that disappeared. Unchanged posts cost one ID lookup and no embedding
+ * call, which makes the full pass on startup cheap and lets it repair anything an event missed.
+ * <p>
+ * Indexing runs without a surrounding transaction: reading the post and writing the chunks each
+ * use their own short transaction, so the embedding calls in between never hold a connection.
+ */
+@Component
+@Slf4j
+class BlogPostIndexer {
+
+    private final BlogPostApi blogPostApi;
+    private final VectorStore vectorStore;
+    private final BlogPostChunkRepository chunkRepository;
+    private final boolean reindexOnStartup;
+    private final TokenTextSplitter splitter = new TokenTextSplitter();
+
+    BlogPostIndexer(BlogPostApi blogPostApi, VectorStore vectorStore, BlogPostChunkRepository chunkRepository,
+            @Value("${application.ai.rag.reindex-on-startup:true}") boolean reindexOnStartup) {
+        this.blogPostApi = blogPostApi;
+        this.vectorStore = vectorStore;
+        this.chunkRepository = chunkRepository;
+        this.reindexOnStartup = reindexOnStartup;
+    }
+
+    @ApplicationModuleListener(propagation = Propagation.NOT_SUPPORTED)
+    void on(BlogPostPublishedEvent event) {
+        index(event.id());
+    }
+
+    @ApplicationModuleListener(propagation = Propagation.NOT_SUPPORTED)
+    void on(BlogPostUpdatedEvent event) {
+        index(event.id());
+    }
+
+    @ApplicationModuleListener
+    void on(BlogPostDeletedEvent event) {
+        int deleted = chunkRepository.deleteByBlogPostId(event.id());
+        log.info("Removed {} indexed chunks of deleted blog post {}", deleted, event.slug());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void reindexAll() {
+        if (!reindexOnStartup) {
+            return;
+        }
+        int failed = 0;
+        for (UUID blogPostId : blogPostApi.getAllPostIds()) {
+            try {
+                index(blogPostId);
+            } catch (RuntimeException e) {
+                // the next event or restart retries, one broken post must not stop the others
+                failed++;
+                log.warn("Failed to index blog post {}", blogPostId, e);
+            }
+        }
+        log.info("Blog post index is up to date{}", failed > 0 ? ", " + failed + " posts failed" : "");
+    }
+
+    void index(UUID blogPostId) {
+        BlogPostContentDto post = blogPostApi.getPostContent(blogPostId).orElse(null);
+        if (post == null) {
+            chunkRepository.deleteByBlogPostId(blogPostId);
+            return;
+        }
+
+        Map<String, Document> chunks = chunk(post);
+        Set<String> existing = chunkRepository.findChunkIds(blogPostId);
+        List<Document> added = chunks.values().stream()
+                .filter(chunk -> !existing.contains(chunk.getId()))
+                .toList();
+        List<String> removed = existing.stream()
+                .filter(id -> !chunks.containsKey(id))
+                .toList();
+
+        if (!added.isEmpty()) {
+            vectorStore.add(added);
+        }
+        if (!removed.isEmpty()) {
+            vectorStore.delete(removed);
+        }
+        if (!added.isEmpty() || !removed.isEmpty()) {
+            log.info("Indexed blog post {}: {} chunks embedded, {} removed, {} unchanged",
+                    post.slug(), added.size(), removed.size(), chunks.size() - added.size());
+        }
+    }
+
+    private Map<String, Document> chunk(BlogPostContentDto post) {
+        Map<String, Object> metadata = new HashMap<>();
+        metadata.put("slug", post.slug());
+        metadata.put("title", post.title());
+        // sorted, the hash must not depend on set iteration order
+        metadata.put("tags", post.tags().stream().sorted().toList());
+
+        StringBuilder text = new StringBuilder("# ").append(post.title()).append("\n\n");
+        if (post.description() != null) {
+            text.append(post.description()).append("\n\n");
+        }
+        if (post.content() != null) {
+            text.append(post.content());
+        }
+
+        List<Document> split = splitter.apply(List.of(new Document(text.toString(), metadata)));
+        // identical chunks of one post collapse into one entry
+        Map<String, Document> chunks = new LinkedHashMap<>();
+        for (Document part : split) {
+            String hash = sha256(post.slug() + '\n' + post.title() + '\n' + metadata.get("tags") + '\n' + part.getText());
+            String id = UUID.nameUUIDFromBytes((post.id() + ":" + hash).getBytes(StandardCharsets.UTF_8)).toString();
+            Map<String, Object> chunkMetadata = new HashMap<>(metadata);
+            chunkMetadata.put("blog_post_id", post.id().toString());
+            chunkMetadata.put("chunk_index", chunks.size());
+            chunkMetadata.put("content_hash", hash);
+            chunks.putIfAbsent(id, Document.builder().id(id).text(part.getText()).metadata(chunkMetadata).build());
+        }
+        return chunks;
+    }
+
+    private static String sha256(String text) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
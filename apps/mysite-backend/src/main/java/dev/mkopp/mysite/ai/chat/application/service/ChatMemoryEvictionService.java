@@ -0,0 +1,37 @@
+package dev.mkopp.mysite.ai.chat.application.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import dev.mkopp.mysite.ai.chat.application.port.out.ChatHistoryRepository;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Deletes conversations that have been idle for longer than the chat memory TTL.
+ */
+@Component
+@Slf4j
+class ChatMemoryEvictionService {
+
+    private final ChatHistoryRepository chatHistoryRepository;
+    private final Duration ttl;
+
+    ChatMemoryEvictionService(ChatHistoryRepository chatHistoryRepository,
+            @Value("${application.ai.chat.memory.ttl:P7D}") Duration ttl) {
+        this.chatHistoryRepository = chatHistoryRepository;
+        this.ttl = ttl;
+    }
+
+    @Scheduled(cron = "${application.ai.chat.memory.eviction-cron:0 15 * * * *}")
+    void evictIdleConversations() {
+        List<String> evicted = chatHistoryRepository.deleteIdleSince(Instant.now().minus(ttl));
+        if (!evicted.isEmpty()) {
+            log.info("Evicted {} chat conversations idle for more than {}", evicted.size(), ttl);
+        }
+    }
+}
@@ -1,11 +1,29 @@
 package dev.mkopp.mysite.ai.chat.config;
 
 import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.client.advisor.vectorstore.QuestionAnswerAdvisor;
+import org.springframework.ai.chat.memory.ChatMemory;
+import org.springframework.ai.chat.memory.ChatMemoryRepository;
+import org.springframework.ai.chat.memory.MessageWindowChatMemory;
+import org.springframework.ai.embedding.EmbeddingModel;
 import org.springframework.ai.google.genai.GoogleGenAiChatModel;
 import org.springframework.ai.openai.OpenAiChatModel;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import dev.mkopp.mysite.ai.chat.application.port.out.BlogPostChunkTextSearch;
+import dev.mkopp.mysite.ai.chat.infrastructure.adapter.out.HybridChunkRetriever;
+import dev.mkopp.mysite.ai.chat.infrastructure.adapter.out.SemanticCacheAdvisor;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.concurrent.Executor;
+
 @Configuration
 public class AiChatConfig {
 
@@ -21,5 +39,47 @@ public class AiChatConfig {
         .build();
     }
 
+    // Only the last max-messages messages of a conversation are kept and sent to the model
+    @Bean
+    public ChatMemory chatMemory(ChatMemoryRepository chatMemoryRepository,
+            @Value("${application.ai.chat.memory.max-messages:40}") int maxMessages) {
+        return MessageWindowChatMemory.builder()
+                .chatMemoryRepository(chatMemoryRepository)
+                .maxMessages(maxMessages)
+                .build();
+    }
+
+    @Bean
+    public SemanticCacheAdvisor semanticCacheAdvisor(
+            @Qualifier("googleGenAiTextEmbedding") EmbeddingModel embeddingModel,
+            MeterRegistry meterRegistry,
+            @Value("${application.ai.chat.semantic-cache.similarity-threshold:0.95}") double similarityThreshold,
+            @Value("${application.ai.chat.semantic-cache.maximum-size:500}") int maximumSize,
+            @Value("${application.ai.chat.semantic-cache.ttl:PT12H}") Duration ttl) {
+        return new SemanticCacheAdvisor(embeddingModel, meterRegistry, similarityThreshold, maximumSize, ttl);
+    }
 
+    // Grounds chat answers in the indexed blog posts, by vector and full-text search where the
+    // chunk store supports both
+    @Bean
+    public QuestionAnswerAdvisor questionAnswerAdvisor(VectorStore vectorStore,
+            ObjectProvider<BlogPostChunkTextSearch> textSearch,
+            @Qualifier("applicationTaskExecutor") Executor executor,
+            @Value("${application.ai.rag.top-k:4}") int topK,
+            @Value("${application.ai.rag.similarity-threshold:0.6}") double similarityThreshold,
+            @Value("${application.ai.rag.hybrid.enabled:true}") boolean hybrid,
+            @Value("${application.ai.rag.hybrid.candidates:20}") int candidates,
+            @Value("${application.ai.rag.hybrid.rrf-k:60}") int rrfK,
+            @Value("${application.ai.rag.hybrid.min-text-rank:0.1}") double minTextRank) {
+        BlogPostChunkTextSearch chunkTextSearch = textSearch.getIfAvailable();
+        VectorStore retriever = hybrid && chunkTextSearch != null
+                ? new HybridChunkRetriever(vectorStore, chunkTextSearch, executor, candidates, rrfK, minTextRank)
+                : vectorStore;
+        return QuestionAnswerAdvisor.builder(retriever)
+                .searchRequest(SearchRequest.builder()
+                        .topK(topK)
+                        .similarityThreshold(similarityThreshold)
+                        .build())
+                .build();
+    }
 }
@@ -1,6 +1,5 @@
 package dev.mkopp.mysite.ai.chat.config;
 
-import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -12,13 +11,24 @@ import org.springframework.ai.embedding.EmbeddingModel;
 import org.springframework.ai.reader.TextReader;
 import org.springframework.ai.transformer.splitter.TextSplitter;
 import org.springframework.ai.transformer.splitter.TokenTextSplitter;
-import org.springframework.ai.vectorstore.SimpleVectorStore;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.io.Resource;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import dev.mkopp.mysite.ai.chat.application.port.out.EmbeddingCacheRepository;
+import dev.mkopp.mysite.ai.chat.infrastructure.adapter.out.CachingEmbeddingModel;
+import dev.mkopp.mysite.ai.chat.infrastructure.adapter.out.vectorstore.HnswBlogPostChunkRepository;
+import dev.mkopp.mysite.ai.chat.infrastructure.adapter.out.vectorstore.HnswVectorStore;
+import dev.mkopp.mysite.ai.chat.infrastructure.adapter.out.vectorstore.MappedVectorStore;
+import dev.mkopp.mysite.ai.chat.infrastructure.adapter.out.vectorstore.SimpleVectorStoreConverter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 
 @Configuration
@@ -28,16 +38,27 @@ public class RagConfig {
     @Value("vectorstore.json")
     private String vectorStoreName;
 
+    @Value("vectorstore.bin")
+    private String mappedVectorStoreName;
+
     @Value("classpath:/data/README.md")
     private Resource models;
 
-    // @Bean
-    SimpleVectorStore simpleVectorStore(@Qualifier("googleGenAiTextEmbedding") EmbeddingModel embeddingModel) throws IOException {
-        var simpleVectorStore = SimpleVectorStore.builder(embeddingModel).build();
-        var vectorStoreFile = getVectorStoreFile();
-        if (vectorStoreFile.exists()) {
+    // Mapped instead of parsed, see MappedVectorStore; JSON files of the former SimpleVectorStore are converted once.
+    // Not a default candidate, so VectorStore injection points keep getting the blog post chunk store and only
+    // @Qualifier("readmeVectorStore") receives this one. Off by default: it embeds README.md while the context starts
+    @Bean(destroyMethod = "close", defaultCandidate = false)
+    @ConditionalOnProperty(name = "application.ai.rag.readme.enabled", havingValue = "true")
+    MappedVectorStore readmeVectorStore(@Qualifier("googleGenAiTextEmbedding") EmbeddingModel embeddingModel,
+            ObjectMapper objectMapper,
+            @Value("${application.ai.rag.mapped.rescore-factor:4}") int rescoreFactor) throws IOException {
+        var vectorStoreFile = getVectorStoreFile(mappedVectorStoreName);
+        var legacyVectorStoreFile = getVectorStoreFile(vectorStoreName);
+        if (Files.exists(vectorStoreFile)) {
             log.info("Vector Store File Exists,");
-            simpleVectorStore.load(vectorStoreFile);
+        } else if (Files.exists(legacyVectorStoreFile)) {
+            int converted = SimpleVectorStoreConverter.convert(legacyVectorStoreFile, vectorStoreFile, objectMapper);
+            log.info("Converted {} documents of {} to {}", converted, legacyVectorStoreFile, vectorStoreFile);
         } else {
             log.info("Vector Store File Does Not Exist, loading documents");
             TextReader textReader = new TextReader(models);
@@ -45,13 +66,55 @@ public class RagConfig {
             List<Document> documents = textReader.get();
             TextSplitter textSplitter = new TokenTextSplitter();
             List<Document> splitDocuments = textSplitter.apply(documents);
-            simpleVectorStore.add(splitDocuments);
-            simpleVectorStore.save(vectorStoreFile);
+            MappedVectorStore.write(vectorStoreFile, splitDocuments, embeddingModel, objectMapper);
         }
-        return simpleVectorStore;
+        return MappedVectorStore.open(vectorStoreFile, embeddingModel, objectMapper, rescoreFactor);
+    }
+
+    // Wraps the embedding model where it is created, so the batches every @Qualifier("googleGenAiTextEmbedding") user
+    // indexes read through the cache; static and lazy so the post processor does not initialize its dependencies early
+    @Bean
+    @ConditionalOnProperty(name = "application.ai.embedding-cache.enabled", havingValue = "true", matchIfMissing = true)
+    static BeanPostProcessor cachingEmbeddingModelPostProcessor(
+            ObjectProvider<EmbeddingCacheRepository> cacheRepository,
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${spring.ai.google.genai.embedding.text.options.model:gemini-embedding-001}") String model,
+            @Value("${spring.ai.google.genai.embedding.text.options.dimensions:768}") int dimensions) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if ("googleGenAiTextEmbedding".equals(beanName) && bean instanceof EmbeddingModel embeddingModel) {
+                    log.info("Caching embeddings of {} with {} dimensions", model, dimensions);
+                    return new CachingEmbeddingModel(embeddingModel, cacheRepository.getObject(),
+                            meterRegistry.getObject(), model, dimensions);
+                }
+                return bean;
+            }
+        };
+    }
+
+    // Drop-in for the pgvector store, selected with application.ai.rag.store=hnsw
+    @Bean(destroyMethod = "saveIfDirty")
+    @ConditionalOnProperty(name = "application.ai.rag.store", havingValue = "hnsw")
+    HnswVectorStore hnswVectorStore(@Qualifier("googleGenAiTextEmbedding") EmbeddingModel embeddingModel,
+            ObjectMapper objectMapper,
+            @Value("${application.ai.rag.hnsw.m:16}") int m,
+            @Value("${application.ai.rag.hnsw.ef-construction:200}") int efConstruction,
+            @Value("${application.ai.rag.hnsw.ef-search:64}") int efSearch,
+            @Value("${application.ai.rag.hnsw.snapshot-file:data/hnsw-index.bin}") String snapshotFile) {
+        var hnswVectorStore = new HnswVectorStore(embeddingModel, objectMapper, m, efConstruction, efSearch,
+                Paths.get(snapshotFile));
+        hnswVectorStore.load();
+        return hnswVectorStore;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "application.ai.rag.store", havingValue = "hnsw")
+    HnswBlogPostChunkRepository hnswBlogPostChunkRepository(HnswVectorStore hnswVectorStore) {
+        return new HnswBlogPostChunkRepository(hnswVectorStore);
     }
 
-    private File getVectorStoreFile() {
+    private Path getVectorStoreFile(String name) {
         Path dataDir = Paths.get("data"); // relative to backend working dir
         if (!Files.exists(dataDir)) {
             try {
@@ -60,6 +123,6 @@ public class RagConfig {
                 throw new RuntimeException("Failed to create data directory", e);
             }
         }
-        return dataDir.resolve("vectorstore.json").toFile();
+        return dataDir.resolve(name);
     }
 }
@@ -5,9 +5,13 @@ import java.util.Map;
 
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.client.advisor.MessageChatMemoryAdvisor;
+import org.springframework.ai.chat.client.advisor.vectorstore.QuestionAnswerAdvisor;
 import org.springframework.ai.chat.memory.ChatMemory;
 import org.springframework.ai.chat.messages.Message;
 import org.springframework.ai.chat.model.ChatResponse;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -15,21 +19,28 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import dev.mkopp.mysite.ai.chat.application.service.AiChatService;
 import dev.mkopp.mysite.ai.chat.infrastructure.adapter.SystemPrompts;
 import dev.mkopp.mysite.ai.chat.infrastructure.adapter.out.DateTimeTools;
+import dev.mkopp.mysite.ai.chat.infrastructure.adapter.out.SemanticCacheAdvisor;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import reactor.core.publisher.Flux;
 
+// conversation IDs are generated per visitor by the client; there is no shared default conversation,
+// and they are limited to the 100 characters of ai.chat_conversations.conversation_id
 @RestController
 @RequestMapping("/v1/ai/chat")
 @RequiredArgsConstructor
 public class AiChatController {
-        // private final AiChatService aiChatService;
+        private final AiChatService aiChatService;
 
         private final Map<String, ChatClient> chatClients;
         private final ChatMemory chatMemory;
-        // private final VectorStore vectorStore;
+        private final QuestionAnswerAdvisor questionAnswerAdvisor;
         private final DateTimeTools dateTimeTools;
+        private final SemanticCacheAdvisor semanticCacheAdvisor;
 
         @GetMapping("/info")
         public List<String> info(@RequestParam(defaultValue = "geminiChatClient") String clientBean) {
@@ -43,7 +54,7 @@ public class AiChatController {
         @GetMapping(value = "/chat", produces = MediaType.TEXT_PLAIN_VALUE)
         public ResponseEntity<String> chat(
                         @RequestParam(defaultValue = "Hello, how can AI assist me today?") String message,
-                        @RequestParam(defaultValue = "global") String conversationId,
+                        @RequestParam @NotBlank @Size(max = 100) String conversationId,
                         @RequestParam(defaultValue = "geminiChatClient") String clientBean) {
                 ChatClient chatClient = getChatClient(clientBean);
                 String systemInstructions = SystemPrompts.ASSISTANT_INSTRUCTIONS;
@@ -52,10 +63,11 @@ public class AiChatController {
                                 .system(systemInstructions)
                                 .advisors(
                                         MessageChatMemoryAdvisor.builder(chatMemory)
-                                                .conversationId(conversationId).build()
-                                        //         ,
-                                        // QuestionAnswerAdvisor.builder(vectorStore).build()
+                                                .conversationId(conversationId).build(),
+                                        semanticCacheAdvisor,
+                                        questionAnswerAdvisor
                                 )
+                                .advisors(advisor -> advisor.param(SemanticCacheAdvisor.SCOPE, clientBean))
                                 .user(message)
                                 // .tools(dateTimeTools)     // adding global Tool Bean, can be also created manually
                                 .call()
@@ -65,21 +77,25 @@ public class AiChatController {
 
         @GetMapping(value = "/history", produces = MediaType.APPLICATION_JSON_VALUE)
         public ResponseEntity<List<AiChatMessageResponseDto>> history(
-                        @RequestParam(defaultValue = "global") String conversationId) {
-                List<AiChatMessageResponseDto> history = chatMemory.get(conversationId).stream()
-                                .map(msg -> new AiChatMessageResponseDto(
-                                                msg.getMessageType().toString(),
-                                                msg.getText()))
-                                .toList();
+                        @RequestParam @NotBlank @Size(max = 100) String conversationId) {
+                List<AiChatMessageResponseDto> history = aiChatService.getHistory(conversationId, Pageable.unpaged())
+                                .map(AiChatController::toResponseDto)
+                                .getContent();
                 return ResponseEntity.ok(history);
         }
 
+        // page 0 holds the newest messages, so clients can load older turns on demand
+        @GetMapping(value = "/history/page", produces = MediaType.APPLICATION_JSON_VALUE)
+        public ResponseEntity<Page<AiChatMessageResponseDto>> historyPage(
+                        @RequestParam @NotBlank @Size(max = 100) String conversationId,
+                        @ParameterObject Pageable pageable) {
+                return ResponseEntity.ok(aiChatService.getHistory(conversationId, pageable)
+                                .map(AiChatController::toResponseDto));
+        }
+
         @GetMapping("/history-full")
-        public ResponseEntity<List<Message>> historyFull(@RequestParam(defaultValue = "global") String conversationId) {
-                List<Message> historyFull = chatMemory.get(conversationId).stream()
-                                .map(msg -> msg)
-                                .toList();
-                return ResponseEntity.ok(historyFull);
+        public ResponseEntity<List<Message>> historyFull(@RequestParam @NotBlank @Size(max = 100) String conversationId) {
+                return ResponseEntity.ok(aiChatService.getHistory(conversationId, Pageable.unpaged()).getContent());
         }
 
         @GetMapping("/chat-response")
@@ -112,4 +128,8 @@ public class AiChatController {
                 }
                 return chatClient;
         }
+
+        private static AiChatMessageResponseDto toResponseDto(Message msg) {
+                return new AiChatMessageResponseDto(msg.getMessageType().toString(), msg.getText());
+        }
 }
\ No newline at end of file
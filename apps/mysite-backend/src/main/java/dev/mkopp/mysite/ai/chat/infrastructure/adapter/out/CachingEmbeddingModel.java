@@ -0,0 +1,174 @@
+package dev.mkopp.mysite.ai.chat.infrastructure.adapter.out;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingOptions;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+
+import dev.mkopp.mysite.ai.chat.application.port.out.EmbeddingCacheRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * {@link EmbeddingModel} decorator that remembers every embedding in an {@link EmbeddingCacheRepository},
+ * keyed by model, dimensions and the SHA-256 of the text. A batch is answered from the cache where
+ * possible and only the missing texts are sent to the delegate, in one call and in their original order.
+ * <p>
+ * Model and dimensions come from the request options and fall back to the configured defaults, so
+ * vectors of different models or output sizes never mix. The cache is an optimization only: when it
+ * cannot be read or written, texts are embedded by the delegate as if it did not exist.
+ * <p>
+ * Only batches and documents, the content being indexed, go through the cache. Single texts are the
+ * search queries and chat questions of visitors; they bypass it, so arbitrary user input is never
+ * persisted and cannot grow the cache.
+ */
+@Slf4j
+public class CachingEmbeddingModel implements EmbeddingModel {
+
+    private final EmbeddingModel delegate;
+    private final EmbeddingCacheRepository cacheRepository;
+    private final String defaultModel;
+    private final int defaultDimensions;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter duplicates;
+    private final Counter savedCalls;
+
+    public CachingEmbeddingModel(EmbeddingModel delegate, EmbeddingCacheRepository cacheRepository,
+            MeterRegistry meterRegistry, String defaultModel, int defaultDimensions) {
+        this.delegate = delegate;
+        this.cacheRepository = cacheRepository;
+        this.defaultModel = defaultModel;
+        this.defaultDimensions = defaultDimensions;
+        this.hits = texts(meterRegistry, "hit");
+        this.misses = texts(meterRegistry, "miss");
+        this.duplicates = texts(meterRegistry, "duplicate");
+        this.savedCalls = Counter.builder("ai.embedding.cache.saved.calls")
+                .description("Embedding calls not made because the whole batch was cached")
+                .register(meterRegistry);
+        Gauge.builder("ai.embedding.cache.hit.ratio", this, CachingEmbeddingModel::hitRatio)
+                .description("Share of embedded texts answered from the embedding cache")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public EmbeddingResponse call(EmbeddingRequest request) {
+        List<String> texts = request.getInstructions();
+        String model = model(request.getOptions());
+        int dimensions = dimensions(request.getOptions());
+
+        // duplicate texts within a batch share one hash and are embedded once
+        Map<String, String> textsByHash = new LinkedHashMap<>();
+        List<String> hashes = new ArrayList<>(texts.size());
+        for (String text : texts) {
+            String hash = sha256(text);
+            hashes.add(hash);
+            textsByHash.putIfAbsent(hash, text);
+        }
+
+        Map<String, float[]> embeddings = find(model, dimensions, textsByHash);
+        Map<String, String> missing = new LinkedHashMap<>(textsByHash);
+        missing.keySet().removeAll(embeddings.keySet());
+        // repeats within the batch are embedded once and counted apart, they never reach the cache
+        hits.increment(textsByHash.size() - missing.size());
+        misses.increment(missing.size());
+        duplicates.increment(texts.size() - textsByHash.size());
+
+        if (missing.isEmpty()) {
+            savedCalls.increment();
+        } else {
+            List<String> missingHashes = new ArrayList<>(missing.keySet());
+            EmbeddingResponse response = delegate.call(
+                    new EmbeddingRequest(new ArrayList<>(missing.values()), request.getOptions()));
+            Map<String, float[]> fetched = new LinkedHashMap<>();
+            for (Embedding embedding : response.getResults()) {
+                fetched.put(missingHashes.get(embedding.getIndex()), embedding.getOutput());
+            }
+            if (fetched.size() != missingHashes.size()) {
+                throw new IllegalStateException("Embedding model returned " + fetched.size()
+                        + " embeddings for " + missingHashes.size() + " texts");
+            }
+            save(model, dimensions, fetched);
+            embeddings.putAll(fetched);
+        }
+
+        List<Embedding> results = new ArrayList<>(texts.size());
+        for (int i = 0; i < hashes.size(); i++) {
+            results.add(new Embedding(embeddings.get(hashes.get(i)), i));
+        }
+        return new EmbeddingResponse(results);
+    }
+
+    @Override
+    public float[] embed(String text) {
+        return delegate.embed(text);
+    }
+
+    @Override
+    public float[] embed(Document document) {
+        return embed(List.of(document.getText())).get(0);
+    }
+
+    @Override
+    public int dimensions() {
+        return delegate.dimensions();
+    }
+
+    private Map<String, float[]> find(String model, int dimensions, Map<String, String> textsByHash) {
+        try {
+            return new LinkedHashMap<>(cacheRepository.findAll(model, dimensions, textsByHash.keySet()));
+        } catch (RuntimeException e) {
+            log.warn("Reading the embedding cache failed, embedding all {} texts", textsByHash.size(), e);
+            return new LinkedHashMap<>();
+        }
+    }
+
+    private void save(String model, int dimensions, Map<String, float[]> embeddings) {
+        try {
+            cacheRepository.saveAll(model, dimensions, embeddings);
+        } catch (RuntimeException e) {
+            log.warn("Writing {} embeddings to the cache failed", embeddings.size(), e);
+        }
+    }
+
+    private String model(EmbeddingOptions options) {
+        return options != null && options.getModel() != null ? options.getModel() : defaultModel;
+    }
+
+    private int dimensions(EmbeddingOptions options) {
+        return options != null && options.getDimensions() != null ? options.getDimensions() : defaultDimensions;
+    }
+
+    private double hitRatio() {
+        double total = hits.count() + misses.count();
+        return total == 0 ? 0 : hits.count() / total;
+    }
+
+    static String sha256(String text) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static Counter texts(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("ai.embedding.cache.requests")
+                .description("Texts looked up in the embedding cache")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,134 @@
+package dev.mkopp.mysite.ai.chat.infrastructure.adapter.out;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.ai.vectorstore.filter.Filter;
+
+import dev.mkopp.mysite.ai.chat.application.port.out.BlogPostChunkTextSearch;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Retrieves blog post chunks by vector similarity and by full-text search at the same time and
+ * merges both rankings with reciprocal rank fusion: each chunk scores {@code 1 / (rrfK + rank)}
+ * per list it appears in, so chunks found by both legs rise to the top while exact names that
+ * only the lexical leg finds still make it into the result.
+ * <p>
+ * Exposed as a read-only {@link VectorStore} because that is what {@code QuestionAnswerAdvisor}
+ * retrieves through. The filter expression of a request applies to both legs. The similarity
+ * threshold applies to the vector leg; a chunk only the lexical leg found must reach the minimum
+ * text rank instead, so an off-topic question sharing a stray word with a post still retrieves
+ * nothing. The returned scores are fusion scores. If one leg fails, the other one's result is
+ * used alone.
+ */
+@Slf4j
+public class HybridChunkRetriever implements VectorStore {
+
+    private final VectorStore vectorStore;
+    private final BlogPostChunkTextSearch textSearch;
+    private final Executor executor;
+    private final int candidates;
+    private final int rrfK;
+    private final double minTextRank;
+
+    /**
+     * @param candidates chunks taken from each leg before fusion, at least the requested top-k
+     * @param rrfK damping constant of the fusion, higher values flatten the rank differences
+     * @param minTextRank full-text rank a chunk missing from the vector leg needs to be fused
+     */
+    public HybridChunkRetriever(VectorStore vectorStore, BlogPostChunkTextSearch textSearch, Executor executor,
+            int candidates, int rrfK, double minTextRank) {
+        this.vectorStore = vectorStore;
+        this.textSearch = textSearch;
+        this.executor = executor;
+        this.candidates = candidates;
+        this.rrfK = rrfK;
+        this.minTextRank = minTextRank;
+    }
+
+    @Override
+    public List<Document> similaritySearch(SearchRequest request) {
+        int limit = Math.max(candidates, request.getTopK());
+        // the lexical leg runs on the executor while this thread embeds the query and searches vectors
+        CompletableFuture<List<Document>> lexical = CompletableFuture.supplyAsync(
+                () -> textSearch.searchText(request.getQuery(), request.getFilterExpression(), limit), executor);
+        List<Document> vector = vectorLeg(SearchRequest.from(request).topK(limit).build());
+        Set<String> vectorIds = vector.stream().map(Document::getId).collect(Collectors.toSet());
+        List<Document> text = lexicalLeg(lexical).stream()
+                .filter(document -> vectorIds.contains(document.getId()) || isRelevant(document))
+                .toList();
+        return fuse(List.of(vector, text), request.getTopK());
+    }
+
+    @Override
+    public void add(List<Document> documents) {
+        throw new UnsupportedOperationException("The hybrid retriever is read-only, write through the vector store");
+    }
+
+    @Override
+    public void delete(List<String> idList) {
+        throw new UnsupportedOperationException("The hybrid retriever is read-only, write through the vector store");
+    }
+
+    @Override
+    public void delete(Filter.Expression filterExpression) {
+        throw new UnsupportedOperationException("The hybrid retriever is read-only, write through the vector store");
+    }
+
+    /**
+     * Reciprocal rank fusion of the ranked lists, best first; the first list wins ties.
+     */
+    List<Document> fuse(List<List<Document>> rankings, int topK) {
+        Map<String, Document> documents = new LinkedHashMap<>();
+        Map<String, Double> scores = new LinkedHashMap<>();
+        for (List<Document> ranking : rankings) {
+            for (int rank = 0; rank < ranking.size(); rank++) {
+                Document document = ranking.get(rank);
+                documents.putIfAbsent(document.getId(), document);
+                scores.merge(document.getId(), 1.0 / (rrfK + rank + 1), Double::sum);
+            }
+        }
+
+        List<Map.Entry<String, Double>> ranked = new ArrayList<>(scores.entrySet());
+        // stable sort, equal scores keep their first-seen order
+        ranked.sort(Map.Entry.<String, Double>comparingByValue(Comparator.reverseOrder()));
+        List<Document> fused = new ArrayList<>(Math.min(topK, ranked.size()));
+        for (Map.Entry<String, Double> entry : ranked.subList(0, Math.min(topK, ranked.size()))) {
+            fused.add(documents.get(entry.getKey()).mutate().score(entry.getValue()).build());
+        }
+        return fused;
+    }
+
+    private boolean isRelevant(Document textMatch) {
+        return textMatch.getScore() != null && textMatch.getScore() >= minTextRank;
+    }
+
+    private List<Document> vectorLeg(SearchRequest request) {
+        try {
+            return vectorStore.similaritySearch(request);
+        } catch (RuntimeException e) {
+            log.warn("Vector search failed, retrieving by full-text search only", e);
+            return List.of();
+        }
+    }
+
+    private static List<Document> lexicalLeg(CompletableFuture<List<Document>> lexical) {
+        try {
+            return lexical.join();
+        } catch (CompletionException e) {
+            log.warn("Full-text search failed, retrieving by vector similarity only", e.getCause());
+            return List.of();
+        }
+    }
+}
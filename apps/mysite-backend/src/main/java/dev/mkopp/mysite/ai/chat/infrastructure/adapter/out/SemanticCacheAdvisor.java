@@ -0,0 +1,247 @@
+package dev.mkopp.mysite.ai.chat.infrastructure.adapter.out;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+import org.springframework.ai.chat.client.ChatClientRequest;
+import org.springframework.ai.chat.client.ChatClientResponse;
+import org.springframework.ai.chat.client.advisor.api.Advisor;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisor;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisorChain;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.MessageType;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.embedding.EmbeddingModel;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Answers a chat call from an earlier response when the question means the same thing.
+ * <p>
+ * The normalized user text is embedded and compared by cosine similarity with the questions
+ * asked before under the same system prompt and scope (e.g. the chat client). Above the threshold
+ * the earlier response is returned and the model is not called. An identical normalized question
+ * is answered without embedding it at all.
+ * <p>
+ * Only opening questions are cached: once a conversation has history, the answer depends on it.
+ * The advisor therefore runs inside the chat memory advisor, which still records cached turns.
+ * Entries are evicted least recently used beyond the maximum size and expire after the TTL.
+ * Metrics: {@code ai.chat.semantic.cache.requests} tagged with {@code result} hit, miss or skip,
+ * and the {@code ai.chat.semantic.cache.size} gauge.
+ */
+@Slf4j
+public class SemanticCacheAdvisor implements CallAdvisor {
+
+    /**
+     * Advisor context key that separates cache entries, e.g. per chat client.
+     */
+    public static final String SCOPE = "semantic_cache_scope";
+
+    private static final int ORDER = Advisor.DEFAULT_CHAT_MEMORY_PRECEDENCE_ORDER + 100;
+
+    private final EmbeddingModel embeddingModel;
+    private final double similarityThreshold;
+    private final int maximumSize;
+    private final Duration ttl;
+    private final Clock clock;
+    // access ordered, the eldest entry is the least recently used
+    private final LinkedHashMap<UUID, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter skips;
+
+    public SemanticCacheAdvisor(EmbeddingModel embeddingModel, MeterRegistry meterRegistry,
+            double similarityThreshold, int maximumSize, Duration ttl) {
+        this(embeddingModel, meterRegistry, similarityThreshold, maximumSize, ttl, Clock.systemUTC());
+    }
+
+    SemanticCacheAdvisor(EmbeddingModel embeddingModel, MeterRegistry meterRegistry,
+            double similarityThreshold, int maximumSize, Duration ttl, Clock clock) {
+        this.embeddingModel = embeddingModel;
+        this.similarityThreshold = similarityThreshold;
+        this.maximumSize = maximumSize;
+        this.ttl = ttl;
+        this.clock = clock;
+        this.hits = requests(meterRegistry, "hit");
+        this.misses = requests(meterRegistry, "miss");
+        this.skips = requests(meterRegistry, "skip");
+        Gauge.builder("ai.chat.semantic.cache.size", this, SemanticCacheAdvisor::size)
+                .description("Responses held by the semantic chat cache")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public ChatClientResponse adviseCall(ChatClientRequest request, CallAdvisorChain chain) {
+        String question = openingQuestion(request.prompt().getInstructions());
+        if (question == null) {
+            skips.increment();
+            return chain.nextCall(request);
+        }
+
+        String scope = scope(request);
+        float[] embedding = null;
+        ChatResponse cached = findExact(scope, question);
+        if (cached == null) {
+            try {
+                embedding = embeddingModel.embed(question);
+                cached = findSimilar(scope, embedding);
+            } catch (RuntimeException e) {
+                log.warn("Embedding the chat question failed, calling the model without the cache", e);
+                skips.increment();
+                return chain.nextCall(request);
+            }
+        }
+        if (cached != null) {
+            hits.increment();
+            return ChatClientResponse.builder().chatResponse(cached).context(request.context()).build();
+        }
+
+        misses.increment();
+        ChatClientResponse response = chain.nextCall(request);
+        if (isCacheable(response.chatResponse())) {
+            put(new Entry(scope, question, embedding, response.chatResponse(), clock.instant()));
+        }
+        return response;
+    }
+
+    @Override
+    public String getName() {
+        return SemanticCacheAdvisor.class.getSimpleName();
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    private synchronized ChatResponse findExact(String scope, String question) {
+        Instant now = clock.instant();
+        for (Iterator<Entry> it = entries.values().iterator(); it.hasNext();) {
+            Entry entry = it.next();
+            if (entry.isExpired(now, ttl)) {
+                it.remove();
+            } else if (entry.scope().equals(scope) && entry.question().equals(question)) {
+                // touch the entry so it counts as recently used
+                return entries.get(entry.id()).response();
+            }
+        }
+        return null;
+    }
+
+    private synchronized ChatResponse findSimilar(String scope, float[] embedding) {
+        Instant now = clock.instant();
+        Entry best = null;
+        double bestSimilarity = similarityThreshold;
+        for (Iterator<Entry> it = entries.values().iterator(); it.hasNext();) {
+            Entry entry = it.next();
+            if (entry.isExpired(now, ttl)) {
+                it.remove();
+                continue;
+            }
+            if (!entry.scope().equals(scope) || entry.embedding() == null) {
+                continue;
+            }
+            double similarity = cosineSimilarity(embedding, entry.embedding());
+            if (similarity >= bestSimilarity) {
+                best = entry;
+                bestSimilarity = similarity;
+            }
+        }
+        return best != null ? entries.get(best.id()).response() : null;
+    }
+
+    private synchronized void put(Entry entry) {
+        entries.put(entry.id(), entry);
+        while (entries.size() > maximumSize) {
+            Iterator<UUID> eldest = entries.keySet().iterator();
+            eldest.next();
+            eldest.remove();
+        }
+    }
+
+    /**
+     * The last user text of a prompt without prior user or assistant turns, normalized, otherwise null.
+     */
+    private static String openingQuestion(List<Message> instructions) {
+        String question = null;
+        for (Message message : instructions) {
+            MessageType type = message.getMessageType();
+            if (type == MessageType.ASSISTANT || type == MessageType.TOOL || (type == MessageType.USER && question != null)) {
+                return null;
+            }
+            if (type == MessageType.USER) {
+                question = normalize(message.getText());
+            }
+        }
+        return question == null || question.isEmpty() ? null : question;
+    }
+
+    private static String scope(ChatClientRequest request) {
+        StringBuilder scope = new StringBuilder(String.valueOf(request.context().get(SCOPE)));
+        for (Message message : request.prompt().getInstructions()) {
+            if (message.getMessageType() == MessageType.SYSTEM) {
+                scope.append('\u0000').append(message.getText());
+            }
+        }
+        // the system prompt can be long, entries only keep a digest of it
+        return UUID.nameUUIDFromBytes(scope.toString().getBytes(StandardCharsets.UTF_8)).toString();
+    }
+
+    static String normalize(String text) {
+        return text == null ? "" : text.strip().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    static double cosineSimilarity(float[] a, float[] b) {
+        if (a.length != b.length) {
+            return 0;
+        }
+        double dot = 0;
+        double normA = 0;
+        double normB = 0;
+        for (int i = 0; i < a.length; i++) {
+            dot += a[i] * b[i];
+            normA += a[i] * a[i];
+            normB += b[i] * b[i];
+        }
+        return normA == 0 || normB == 0 ? 0 : dot / (Math.sqrt(normA) * Math.sqrt(normB));
+    }
+
+    private static boolean isCacheable(ChatResponse response) {
+        return response != null && response.getResult() != null && response.getResult().getOutput() != null
+                && response.getResult().getOutput().getText() != null
+                && !response.getResult().getOutput().getText().isBlank();
+    }
+
+    private static Counter requests(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("ai.chat.semantic.cache.requests")
+                .description("Chat calls seen by the semantic cache")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private record Entry(UUID id, String scope, String question, float[] embedding, ChatResponse response,
+            Instant createdAt) {
+
+        Entry(String scope, String question, float[] embedding, ChatResponse response, Instant createdAt) {
+            this(UUID.randomUUID(), scope, question, embedding, response, createdAt);
+        }
+
+        boolean isExpired(Instant now, Duration ttl) {
+            return !createdAt.plus(ttl).isAfter(now);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package dev.mkopp.mysite.ai.chat.infrastructure.adapter.out.persistence;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.ai.chat.memory.ChatMemoryRepository;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.MessageType;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.ToolResponseMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import dev.mkopp.mysite.ai.chat.application.port.out.ChatHistoryRepository;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Chat memory in the {@code ai} schema, shared by all replicas. Only message type and text are
+ * kept, like Spring AI's own JDBC store.
+ * <p>
+ * {@link #saveAll} receives the complete message window, read before the model was called. It is
+ * not written back as is: the window is aligned with what is stored now, only the messages after
+ * the aligned part are appended and the messages that fell out of the window are deleted. A turn
+ * another request or replica stored in the meantime therefore stays, instead of being overwritten
+ * by a stale window. The upsert of the conversation row locks it, so saves of one conversation
+ * run one after another.
+ */
+@Component
+@RequiredArgsConstructor
+class JdbcChatMemoryRepository implements ChatMemoryRepository, ChatHistoryRepository {
+
+    private static final String TOUCH_CONVERSATION = """
+            INSERT INTO ai.chat_conversations (conversation_id, last_active_at)
+            VALUES (?, now())
+            ON CONFLICT (conversation_id) DO UPDATE SET last_active_at = now()
+            """;
+
+    private static final String INSERT_MESSAGE = """
+            INSERT INTO ai.chat_messages (conversation_id, position, message_type, content)
+            VALUES (?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<String> findConversationIds() {
+        return jdbcTemplate.queryForList("SELECT conversation_id FROM ai.chat_conversations", String.class);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Message> findByConversationId(String conversationId) {
+        return jdbcTemplate.query(
+                "SELECT message_type, content FROM ai.chat_messages WHERE conversation_id = ? ORDER BY position",
+                JdbcChatMemoryRepository::toMessage, conversationId);
+    }
+
+    @Override
+    @Transactional
+    public void saveAll(String conversationId, List<Message> messages) {
+        jdbcTemplate.update(TOUCH_CONVERSATION, conversationId);
+        List<StoredMessage> stored = jdbcTemplate.query(
+                "SELECT position, message_type, content FROM ai.chat_messages WHERE conversation_id = ? ORDER BY position",
+                (rs, rowNum) -> new StoredMessage(rs.getInt("position"), rs.getString("message_type"), rs.getString("content")),
+                conversationId);
+
+        Alignment alignment = align(stored, messages);
+        if (alignment.length() > 0) {
+            jdbcTemplate.update("DELETE FROM ai.chat_messages WHERE conversation_id = ? AND position < ?",
+                    conversationId, stored.get(alignment.start()).position());
+        } else {
+            // nothing of the window is stored any more, it replaces the conversation
+            jdbcTemplate.update("DELETE FROM ai.chat_messages WHERE conversation_id = ?", conversationId);
+            stored = List.of();
+        }
+
+        int position = stored.isEmpty() ? 0 : stored.get(stored.size() - 1).position() + 1;
+        List<Object[]> batch = new ArrayList<>(messages.size() - alignment.length());
+        for (Message message : messages.subList(alignment.length(), messages.size())) {
+            batch.add(new Object[] {conversationId, position++, message.getMessageType().name(), text(message)});
+        }
+        jdbcTemplate.batchUpdate(INSERT_MESSAGE, batch);
+    }
+
+    /**
+     * Finds the longest prefix of the window that is stored as a contiguous run, preferring the
+     * latest run on ties. Messages before the run fell out of the window, messages of the window
+     * after the prefix are new.
+     */
+    static Alignment align(List<StoredMessage> stored, List<Message> window) {
+        Alignment best = new Alignment(0, 0);
+        for (int start = stored.size() - 1; start >= 0; start--) {
+            int length = 0;
+            while (length < window.size() && start + length < stored.size()
+                    && stored.get(start + length).matches(window.get(length))) {
+                length++;
+            }
+            if (length > best.length()) {
+                best = new Alignment(start, length);
+            }
+        }
+        return best;
+    }
+
+    record StoredMessage(int position, String messageType, String content) {
+
+        boolean matches(Message message) {
+            return messageType.equals(message.getMessageType().name()) && content.equals(text(message));
+        }
+    }
+
+    record Alignment(int start, int length) {
+    }
+
+    @Override
+    @Transactional
+    public void deleteByConversationId(String conversationId) {
+        jdbcTemplate.update("DELETE FROM ai.chat_conversations WHERE conversation_id = ?", conversationId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<Message> findPage(String conversationId, Pageable pageable) {
+        Long total = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM ai.chat_messages WHERE conversation_id = ?", Long.class, conversationId);
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(findByConversationId(conversationId), pageable, total);
+        }
+        // pages count back from the newest message, each page is then put back into reading order
+        List<Message> messages = new ArrayList<>(jdbcTemplate.query("""
+                SELECT message_type, content FROM ai.chat_messages
+                WHERE conversation_id = ?
+                ORDER BY position DESC
+                LIMIT ? OFFSET ?
+                """, JdbcChatMemoryRepository::toMessage, conversationId, pageable.getPageSize(), pageable.getOffset()));
+        Collections.reverse(messages);
+        return new PageImpl<>(messages, pageable, total);
+    }
+
+    @Override
+    @Transactional
+    public List<String> deleteIdleSince(Instant cutoff) {
+        // messages go with their conversation through ON DELETE CASCADE
+        return jdbcTemplate.queryForList(
+                "DELETE FROM ai.chat_conversations WHERE last_active_at < ? RETURNING conversation_id",
+                String.class, Timestamp.from(cutoff));
+    }
+
+    private static String text(Message message) {
+        return message.getText() != null ? message.getText() : "";
+    }
+
+    private static Message toMessage(ResultSet rs, int rowNum) throws SQLException {
+        String content = rs.getString("content");
+        return switch (MessageType.valueOf(rs.getString("message_type"))) {
+            case USER -> new UserMessage(content);
+            case ASSISTANT -> new AssistantMessage(content);
+            case SYSTEM -> new SystemMessage(content);
+            // tool responses are not persisted beyond their type, the window keeps their position
+            case TOOL -> ToolResponseMessage.builder().responses(List.of()).build();
+        };
+    }
+}
@@ -0,0 +1,82 @@
+package dev.mkopp.mysite.ai.chat.infrastructure.adapter.out.persistence;
+
+import java.sql.Array;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import dev.mkopp.mysite.ai.chat.application.port.out.EmbeddingCacheRepository;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Embedding cache in {@code ai.embedding_cache}. Entries are immutable, so concurrent writers
+ * of the same text simply keep the first row.
+ */
+@Component
+@RequiredArgsConstructor
+class JdbcEmbeddingCacheRepository implements EmbeddingCacheRepository {
+
+    private static final String FIND = """
+            SELECT text_hash, embedding
+            FROM ai.embedding_cache
+            WHERE model = ? AND dimensions = ? AND text_hash = ANY(?)
+            """;
+
+    private static final String INSERT = """
+            INSERT INTO ai.embedding_cache (model, dimensions, text_hash, embedding)
+            VALUES (?, ?, ?, ?)
+            ON CONFLICT DO NOTHING
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, float[]> findAll(String model, int dimensions, Collection<String> textHashes) {
+        Map<String, float[]> embeddings = new HashMap<>();
+        if (textHashes.isEmpty()) {
+            return embeddings;
+        }
+        jdbcTemplate.query(FIND, ps -> {
+            ps.setString(1, model);
+            ps.setInt(2, dimensions);
+            ps.setArray(3, ps.getConnection().createArrayOf("bpchar", textHashes.toArray()));
+        }, rs -> {
+            embeddings.put(rs.getString("text_hash"), toFloats(rs.getArray("embedding")));
+        });
+        return embeddings;
+    }
+
+    @Override
+    @Transactional
+    public void saveAll(String model, int dimensions, Map<String, float[]> embeddingsByTextHash) {
+        List<Map.Entry<String, float[]>> entries = new ArrayList<>(embeddingsByTextHash.entrySet());
+        jdbcTemplate.batchUpdate(INSERT, entries, entries.size(), (ps, entry) -> {
+            float[] embedding = entry.getValue();
+            Float[] boxed = new Float[embedding.length];
+            for (int i = 0; i < embedding.length; i++) {
+                boxed[i] = embedding[i];
+            }
+            ps.setString(1, model);
+            ps.setInt(2, dimensions);
+            ps.setString(3, entry.getKey());
+            ps.setArray(4, ps.getConnection().createArrayOf("float4", boxed));
+        });
+    }
+
+    private static float[] toFloats(Array array) throws SQLException {
+        Object[] values = (Object[]) array.getArray();
+        float[] embedding = new float[values.length];
+        for (int i = 0; i < values.length; i++) {
+            embedding[i] = ((Number) values[i]).floatValue();
+        }
+        return embedding;
+    }
+}
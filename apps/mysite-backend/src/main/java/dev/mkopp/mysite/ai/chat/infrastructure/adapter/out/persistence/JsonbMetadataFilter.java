@@ -0,0 +1,97 @@
+package dev.mkopp.mysite.ai.chat.infrastructure.adapter.out.persistence;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.ai.vectorstore.filter.Filter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Translates Spring AI filter expressions into a SQL predicate over a {@code jsonb} metadata
+ * column. Keys and values are bound as parameters; values compare as {@code jsonb}, so numbers
+ * match by value regardless of their type. A missing key fails every comparison except
+ * {@code NE} and {@code NIN}, like the in-memory filter of the other vector stores.
+ */
+record JsonbMetadataFilter(String sql, List<Object> args) {
+
+    static JsonbMetadataFilter of(Filter.Expression expression, String column, ObjectMapper objectMapper) {
+        if (expression == null) {
+            return new JsonbMetadataFilter("true", List.of());
+        }
+        List<Object> args = new ArrayList<>();
+        String sql = new Translator(column, objectMapper, args).translate(expression);
+        return new JsonbMetadataFilter(sql, Collections.unmodifiableList(args));
+    }
+
+    private record Translator(String column, ObjectMapper objectMapper, List<Object> args) {
+
+        String translate(Filter.Expression expression) {
+            return switch (expression.type()) {
+                case AND -> "(" + translate(operand(expression.left())) + " AND " + translate(operand(expression.right())) + ")";
+                case OR -> "(" + translate(operand(expression.left())) + " OR " + translate(operand(expression.right())) + ")";
+                case NOT -> "NOT " + translate(operand(expression.left()));
+                case EQ -> compare(expression, "=");
+                case NE -> {
+                    String key = key(expression);
+                    args.add(toJson(((Filter.Value) expression.right()).value()));
+                    yield key + " IS DISTINCT FROM CAST(? AS jsonb)";
+                }
+                case GT -> compare(expression, ">");
+                case GTE -> compare(expression, ">=");
+                case LT -> compare(expression, "<");
+                case LTE -> compare(expression, "<=");
+                case IN -> in(expression);
+                case NIN -> "NOT " + in(expression);
+            };
+        }
+
+        private String compare(Filter.Expression expression, String operator) {
+            String key = key(expression);
+            args.add(toJson(((Filter.Value) expression.right()).value()));
+            return "coalesce(" + key + " " + operator + " CAST(? AS jsonb), false)";
+        }
+
+        private String in(Filter.Expression expression) {
+            Object values = ((Filter.Value) expression.right()).value();
+            Collection<?> candidates = values instanceof Collection<?> collection ? collection : List.of(values);
+            if (candidates.isEmpty()) {
+                return "false";
+            }
+            String key = key(expression);
+            List<String> placeholders = new ArrayList<>(candidates.size());
+            for (Object candidate : candidates) {
+                placeholders.add("CAST(? AS jsonb)");
+                args.add(toJson(candidate));
+            }
+            return "coalesce(" + key + " IN (" + String.join(", ", placeholders) + "), false)";
+        }
+
+        // binds the key and returns the lookup, parameters are bound in the order they appear in the SQL
+        private String key(Filter.Expression expression) {
+            args.add(((Filter.Key) expression.left()).key());
+            return column + " -> CAST(? AS text)";
+        }
+
+        private String toJson(Object value) {
+            try {
+                return objectMapper.writeValueAsString(value);
+            } catch (JsonProcessingException e) {
+                throw new IllegalArgumentException("Filter value is not serializable: " + value, e);
+            }
+        }
+
+        private static Filter.Expression operand(Filter.Operand operand) {
+            if (operand instanceof Filter.Group group) {
+                return group.content();
+            }
+            if (operand instanceof Filter.Expression expression) {
+                return expression;
+            }
+            throw new IllegalArgumentException("Expected an expression but got " + operand);
+        }
+    }
+}
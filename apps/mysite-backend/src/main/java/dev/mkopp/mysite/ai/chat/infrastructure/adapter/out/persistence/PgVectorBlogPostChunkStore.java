@@ -0,0 +1,230 @@
+package dev.mkopp.mysite.ai.chat.infrastructure.adapter.out.persistence;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.ai.vectorstore.filter.Filter;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import dev.mkopp.mysite.ai.chat.application.port.out.BlogPostChunkRepository;
+import dev.mkopp.mysite.ai.chat.application.port.out.BlogPostChunkTextSearch;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * {@link VectorStore} over {@code ai.blog_post_chunks} using pgvector through plain JDBC; vectors
+ * travel as text literals cast to {@code vector}, so no pgvector client library is needed.
+ * <p>
+ * Chunks are embedded in batches outside of any transaction, so a slow embedding call never holds
+ * a database connection; each batch is then upserted in its own short transaction. Documents must
+ * carry the {@code blog_post_id}, {@code chunk_index} and {@code content_hash} metadata set by the
+ * indexer. Filter expressions are evaluated on the {@code metadata} column by
+ * {@link JsonbMetadataFilter}. The generated {@code search_vector} column backs the full-text search
+ * of {@link #searchText}.
+ * <p>
+ * The migration skips the table where pgvector is not installed and is not re-run once it is, so
+ * startup fails here instead of failing every chat and indexing call later.
+ */
+@Component
+@ConditionalOnProperty(name = "application.ai.rag.store", havingValue = "pgvector", matchIfMissing = true)
+@Slf4j
+class PgVectorBlogPostChunkStore implements VectorStore, BlogPostChunkRepository, BlogPostChunkTextSearch, InitializingBean {
+
+    static final String BLOG_POST_ID = "blog_post_id";
+    static final String CHUNK_INDEX = "chunk_index";
+    static final String CONTENT_HASH = "content_hash";
+
+    private static final String UPSERT_CHUNK = """
+            INSERT INTO ai.blog_post_chunks
+                (id, blog_post_id, chunk_index, content_hash, content, metadata, embedding, updated_at)
+            VALUES (?, ?, ?, ?, ?, CAST(? AS jsonb), CAST(? AS vector), now())
+            ON CONFLICT (id) DO UPDATE
+            SET chunk_index = EXCLUDED.chunk_index,
+                metadata = EXCLUDED.metadata,
+                updated_at = now()
+            """;
+
+    private static final String SEARCH = """
+            SELECT id, content, metadata::text AS metadata, 1 - (embedding <=> CAST(? AS vector)) AS score
+            FROM ai.blog_post_chunks
+            WHERE 1 - (embedding <=> CAST(? AS vector)) >= ? AND %s
+            ORDER BY embedding <=> CAST(? AS vector)
+            LIMIT ?
+            """;
+
+    // plainto_tsquery ANDs all terms; OR-ing them lets ts_rank order chunks by how many they contain
+    private static final String SEARCH_TEXT = """
+            SELECT id, content, metadata::text AS metadata, ts_rank(search_vector, query) AS score
+            FROM ai.blog_post_chunks,
+                CAST(replace(CAST(plainto_tsquery('english', ?) AS text), '&', '|') AS tsquery) AS query
+            WHERE search_vector @@ query AND %s
+            ORDER BY score DESC
+            LIMIT ?
+            """;
+
+    private static final TypeReference<Map<String, Object>> METADATA_TYPE = new TypeReference<>() {
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EmbeddingModel embeddingModel;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+
+    PgVectorBlogPostChunkStore(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+            @Qualifier("googleGenAiTextEmbedding") EmbeddingModel embeddingModel, ObjectMapper objectMapper,
+            @Value("${application.ai.rag.embedding-batch-size:20}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.embeddingModel = embeddingModel;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        Integer columns = jdbcTemplate.queryForObject("""
+                SELECT count(*) FROM information_schema.columns
+                WHERE table_schema = 'ai' AND table_name = 'blog_post_chunks'
+                    AND column_name IN ('embedding', 'search_vector')
+                """, Integer.class);
+        if (columns == null || columns < 2) {
+            throw new IllegalStateException("ai.blog_post_chunks is missing, the database had no pgvector when it was"
+                    + " migrated. Install pgvector and create the table as described in docs/operations/ops.md,"
+                    + " or set application.ai.rag.store=hnsw");
+        }
+    }
+
+    @Override
+    public void add(List<Document> documents) {
+        for (int from = 0; from < documents.size(); from += batchSize) {
+            List<Document> batch = documents.subList(from, Math.min(from + batchSize, documents.size()));
+            List<float[]> embeddings = embeddingModel.embed(batch.stream().map(Document::getText).toList());
+
+            List<Object[]> rows = new ArrayList<>(batch.size());
+            for (int i = 0; i < batch.size(); i++) {
+                Document document = batch.get(i);
+                Map<String, Object> metadata = document.getMetadata();
+                rows.add(new Object[] {
+                        UUID.fromString(document.getId()),
+                        UUID.fromString(String.valueOf(metadata.get(BLOG_POST_ID))),
+                        ((Number) metadata.get(CHUNK_INDEX)).intValue(),
+                        metadata.get(CONTENT_HASH),
+                        document.getText(),
+                        toJson(metadata),
+                        toVectorLiteral(embeddings.get(i))});
+            }
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(UPSERT_CHUNK, rows));
+        }
+    }
+
+    @Override
+    @Transactional
+    public void delete(List<String> idList) {
+        if (idList.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update("DELETE FROM ai.blog_post_chunks WHERE id = ANY(?)",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("uuid",
+                        idList.stream().map(UUID::fromString).toArray())));
+    }
+
+    @Override
+    @Transactional
+    public void delete(Filter.Expression filterExpression) {
+        JsonbMetadataFilter filter = JsonbMetadataFilter.of(filterExpression, "metadata", objectMapper);
+        jdbcTemplate.update("DELETE FROM ai.blog_post_chunks WHERE " + filter.sql(), filter.args().toArray());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Document> similaritySearch(SearchRequest request) {
+        JsonbMetadataFilter filter = JsonbMetadataFilter.of(request.getFilterExpression(), "metadata", objectMapper);
+        String vector = toVectorLiteral(embeddingModel.embed(request.getQuery()));
+        List<Object> args = new ArrayList<>(List.of(vector, vector, request.getSimilarityThreshold()));
+        args.addAll(filter.args());
+        args.add(vector);
+        args.add(request.getTopK());
+        return jdbcTemplate.query(SEARCH.formatted(filter.sql()), this::toDocument, args.toArray());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Document> searchText(String query, Filter.Expression filterExpression, int topK) {
+        JsonbMetadataFilter filter = JsonbMetadataFilter.of(filterExpression, "metadata", objectMapper);
+        List<Object> args = new ArrayList<>(List.of(query));
+        args.addAll(filter.args());
+        args.add(topK);
+        return jdbcTemplate.query(SEARCH_TEXT.formatted(filter.sql()), this::toDocument, args.toArray());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Set<String> findChunkIds(UUID blogPostId) {
+        return new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT id::text FROM ai.blog_post_chunks WHERE blog_post_id = ?", String.class, blogPostId));
+    }
+
+    @Override
+    @Transactional
+    public int deleteByBlogPostId(UUID blogPostId) {
+        return jdbcTemplate.update("DELETE FROM ai.blog_post_chunks WHERE blog_post_id = ?", blogPostId);
+    }
+
+    private Document toDocument(ResultSet rs, int rowNum) throws SQLException {
+        return Document.builder()
+                .id(rs.getString("id"))
+                .text(rs.getString("content"))
+                .metadata(fromJson(rs.getString("metadata")))
+                .score(rs.getDouble("score"))
+                .build();
+    }
+
+    private String toJson(Map<String, Object> metadata) {
+        try {
+            return objectMapper.writeValueAsString(metadata);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Chunk metadata is not serializable", e);
+        }
+    }
+
+    private Map<String, Object> fromJson(String json) {
+        try {
+            return objectMapper.readValue(json, METADATA_TYPE);
+        } catch (JsonProcessingException e) {
+            log.warn("Ignoring unreadable chunk metadata: {}", json, e);
+            return Map.of();
+        }
+    }
+
+    static String toVectorLiteral(float[] vector) {
+        StringBuilder literal = new StringBuilder(vector.length * 10).append('[');
+        for (int i = 0; i < vector.length; i++) {
+            if (i > 0) {
+                literal.append(',');
+            }
+            literal.append(vector[i]);
+        }
+        return literal.append(']').toString();
+    }
+}
@@ -0,0 +1,36 @@
+package dev.mkopp.mysite.ai.chat.infrastructure.adapter.out.vectorstore;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.ai.vectorstore.filter.Filter;
+
+import dev.mkopp.mysite.ai.chat.application.port.out.BlogPostChunkRepository;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Chunk bookkeeping on top of the {@link HnswVectorStore}, which keeps the post ID in the chunk metadata.
+ */
+@RequiredArgsConstructor
+public class HnswBlogPostChunkRepository implements BlogPostChunkRepository {
+
+    private final HnswVectorStore vectorStore;
+
+    @Override
+    public Set<String> findChunkIds(UUID blogPostId) {
+        return vectorStore.findIds(byBlogPost(blogPostId));
+    }
+
+    @Override
+    public int deleteByBlogPostId(UUID blogPostId) {
+        Set<String> ids = findChunkIds(blogPostId);
+        vectorStore.delete(List.copyOf(ids));
+        return ids.size();
+    }
+
+    private static Filter.Expression byBlogPost(UUID blogPostId) {
+        return new Filter.Expression(Filter.ExpressionType.EQ,
+                new Filter.Key("blog_post_id"), new Filter.Value(blogPostId.toString()));
+    }
+}
@@ -0,0 +1,356 @@
+package dev.mkopp.mysite.ai.chat.infrastructure.adapter.out.vectorstore;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+import java.util.function.IntPredicate;
+
+/**
+ * Hierarchical navigable small world graph (Malkov and Yashunin) over unit-length vectors, scored
+ * by dot product, i.e. cosine similarity.
+ * <p>
+ * Vectors live in one flat {@code float[]} and adjacency in plain {@code int[]} arrays, so the
+ * graph holds no per-vector objects. Nodes are never removed, callers skip deleted nodes with the
+ * accept predicate of {@link #search} and rebuild the graph when too many accumulate.
+ * Not thread-safe, callers guard it with a read-write lock.
+ */
+final class HnswGraph {
+
+    private final int dimensions;
+    private final int m;
+    private final int maxConnectionsLevel0;
+    private final int efConstruction;
+    private final double levelMultiplier;
+    private final SplittableRandom random;
+
+    private float[] vectors;
+    private int[] levels;
+    // neighbours[node][level] holds the neighbour count at index 0, followed by the neighbour IDs
+    private int[][][] neighbours;
+    private int size;
+    private int entryPoint = -1;
+    private int maxLevel = -1;
+
+    HnswGraph(int dimensions, int m, int efConstruction, long seed) {
+        this.dimensions = dimensions;
+        this.m = m;
+        this.maxConnectionsLevel0 = 2 * m;
+        this.efConstruction = efConstruction;
+        this.levelMultiplier = 1 / Math.log(m);
+        this.random = new SplittableRandom(seed);
+        this.vectors = new float[16 * dimensions];
+        this.levels = new int[16];
+        this.neighbours = new int[16][][];
+    }
+
+    int size() {
+        return size;
+    }
+
+    int dimensions() {
+        return dimensions;
+    }
+
+    /**
+     * Adds a unit-length vector and returns its node ID, IDs are assigned consecutively from 0.
+     */
+    int add(float[] vector) {
+        if (vector.length != dimensions) {
+            throw new IllegalArgumentException("Expected " + dimensions + " dimensions but got " + vector.length);
+        }
+        int node = size;
+        ensureCapacity(node + 1);
+        System.arraycopy(vector, 0, vectors, node * dimensions, dimensions);
+        int level = (int) (-Math.log(1 - random.nextDouble()) * levelMultiplier);
+        levels[node] = level;
+        neighbours[node] = new int[level + 1][];
+        for (int l = 0; l <= level; l++) {
+            neighbours[node][l] = new int[maxConnections(l) + 1];
+        }
+        size++;
+
+        if (entryPoint < 0) {
+            entryPoint = node;
+            maxLevel = level;
+            return node;
+        }
+
+        int current = entryPoint;
+        for (int l = maxLevel; l > level; l--) {
+            current = greedyClosest(vector, current, l);
+        }
+        for (int l = Math.min(level, maxLevel); l >= 0; l--) {
+            List<Scored> candidates = searchLayer(vector, current, efConstruction, l);
+            int[] selected = selectNeighbours(candidates, m);
+            setNeighbours(node, l, selected);
+            for (int neighbour : selected) {
+                link(neighbour, node, l);
+            }
+            current = candidates.get(0).node();
+        }
+        if (level > maxLevel) {
+            entryPoint = node;
+            maxLevel = level;
+        }
+        return node;
+    }
+
+    /**
+     * Approximate top-k by similarity among accepted nodes, best first.
+     */
+    List<Scored> search(float[] query, int k, int ef, IntPredicate accept) {
+        if (entryPoint < 0) {
+            return List.of();
+        }
+        int current = entryPoint;
+        for (int l = maxLevel; l > 0; l--) {
+            current = greedyClosest(query, current, l);
+        }
+        List<Scored> found = searchLayer(query, current, Math.max(ef, k), 0);
+        List<Scored> accepted = new ArrayList<>(k);
+        for (Scored scored : found) {
+            if (accept.test(scored.node())) {
+                accepted.add(scored);
+                if (accepted.size() == k) {
+                    break;
+                }
+            }
+        }
+        return accepted;
+    }
+
+    /**
+     * Exact top-k by scanning every accepted node, best first.
+     */
+    List<Scored> exactSearch(float[] query, int k, IntPredicate accept) {
+        PriorityQueue<Scored> best = new PriorityQueue<>(Comparator.comparingDouble(Scored::score));
+        for (int node = 0; node < size; node++) {
+            if (!accept.test(node)) {
+                continue;
+            }
+            best.add(new Scored(node, similarity(query, node)));
+            if (best.size() > k) {
+                best.poll();
+            }
+        }
+        List<Scored> result = new ArrayList<>(best);
+        result.sort(Comparator.comparingDouble(Scored::score).reversed());
+        return result;
+    }
+
+    float[] vector(int node) {
+        return Arrays.copyOfRange(vectors, node * dimensions, (node + 1) * dimensions);
+    }
+
+    void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(dimensions);
+        out.writeInt(m);
+        out.writeInt(efConstruction);
+        out.writeInt(size);
+        out.writeInt(entryPoint);
+        out.writeInt(maxLevel);
+        for (int node = 0; node < size; node++) {
+            for (int i = node * dimensions; i < (node + 1) * dimensions; i++) {
+                out.writeFloat(vectors[i]);
+            }
+            out.writeInt(levels[node]);
+            for (int l = 0; l <= levels[node]; l++) {
+                int[] list = neighbours[node][l];
+                out.writeInt(list[0]);
+                for (int i = 1; i <= list[0]; i++) {
+                    out.writeInt(list[i]);
+                }
+            }
+        }
+    }
+
+    static HnswGraph readFrom(DataInputStream in, long seed) throws IOException {
+        int dimensions = in.readInt();
+        int m = in.readInt();
+        int efConstruction = in.readInt();
+        HnswGraph graph = new HnswGraph(dimensions, m, efConstruction, seed);
+        int size = in.readInt();
+        graph.ensureCapacity(size);
+        graph.entryPoint = in.readInt();
+        graph.maxLevel = in.readInt();
+        for (int node = 0; node < size; node++) {
+            for (int i = node * dimensions; i < (node + 1) * dimensions; i++) {
+                graph.vectors[i] = in.readFloat();
+            }
+            int level = in.readInt();
+            graph.levels[node] = level;
+            graph.neighbours[node] = new int[level + 1][];
+            for (int l = 0; l <= level; l++) {
+                int[] list = new int[graph.maxConnections(l) + 1];
+                list[0] = in.readInt();
+                for (int i = 1; i <= list[0]; i++) {
+                    list[i] = in.readInt();
+                }
+                graph.neighbours[node][l] = list;
+            }
+        }
+        graph.size = size;
+        return graph;
+    }
+
+    private int greedyClosest(float[] query, int start, int level) {
+        int current = start;
+        float currentScore = similarity(query, current);
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            int[] list = neighbours[current][level];
+            for (int i = 1; i <= list[0]; i++) {
+                float score = similarity(query, list[i]);
+                if (score > currentScore) {
+                    current = list[i];
+                    currentScore = score;
+                    improved = true;
+                }
+            }
+        }
+        return current;
+    }
+
+    private List<Scored> searchLayer(float[] query, int entry, int ef, int level) {
+        BitSet visited = new BitSet(size);
+        visited.set(entry);
+        Scored start = new Scored(entry, similarity(query, entry));
+        PriorityQueue<Scored> candidates = new PriorityQueue<>(Comparator.comparingDouble(Scored::score).reversed());
+        PriorityQueue<Scored> results = new PriorityQueue<>(Comparator.comparingDouble(Scored::score));
+        candidates.add(start);
+        results.add(start);
+
+        while (!candidates.isEmpty()) {
+            Scored candidate = candidates.poll();
+            if (candidate.score() < results.peek().score() && results.size() >= ef) {
+                break;
+            }
+            int[] list = neighbours[candidate.node()][level];
+            for (int i = 1; i <= list[0]; i++) {
+                int neighbour = list[i];
+                if (visited.get(neighbour)) {
+                    continue;
+                }
+                visited.set(neighbour);
+                float score = similarity(query, neighbour);
+                if (results.size() < ef || score > results.peek().score()) {
+                    Scored scored = new Scored(neighbour, score);
+                    candidates.add(scored);
+                    results.add(scored);
+                    if (results.size() > ef) {
+                        results.poll();
+                    }
+                }
+            }
+        }
+        List<Scored> sorted = new ArrayList<>(results);
+        sorted.sort(Comparator.comparingDouble(Scored::score).reversed());
+        return sorted;
+    }
+
+    /**
+     * Neighbour heuristic of the paper: a candidate is kept only if it is closer to the base than to
+     * every neighbour kept so far, which spreads the links across clusters.
+     */
+    private int[] selectNeighbours(List<Scored> candidatesBestFirst, int max) {
+        int[] selected = new int[Math.min(max, candidatesBestFirst.size())];
+        int count = 0;
+        for (Scored candidate : candidatesBestFirst) {
+            if (count == selected.length) {
+                break;
+            }
+            boolean diverse = true;
+            for (int i = 0; i < count && diverse; i++) {
+                diverse = similarity(candidate.node(), selected[i]) < candidate.score();
+            }
+            if (diverse) {
+                selected[count++] = candidate.node();
+            }
+        }
+        // fill up with the closest skipped candidates, a sparse node is worse than a redundant link
+        for (Scored candidate : candidatesBestFirst) {
+            if (count == selected.length) {
+                break;
+            }
+            if (!contains(selected, count, candidate.node())) {
+                selected[count++] = candidate.node();
+            }
+        }
+        return Arrays.copyOf(selected, count);
+    }
+
+    private void link(int node, int neighbour, int level) {
+        int[] list = neighbours[node][level];
+        int max = maxConnections(level);
+        if (list[0] < max) {
+            list[++list[0]] = neighbour;
+            return;
+        }
+        List<Scored> candidates = new ArrayList<>(max + 1);
+        for (int i = 1; i <= list[0]; i++) {
+            candidates.add(new Scored(list[i], similarity(node, list[i])));
+        }
+        candidates.add(new Scored(neighbour, similarity(node, neighbour)));
+        candidates.sort(Comparator.comparingDouble(Scored::score).reversed());
+        setNeighbours(node, level, selectNeighbours(candidates, max));
+    }
+
+    private void setNeighbours(int node, int level, int[] selected) {
+        int[] list = neighbours[node][level];
+        list[0] = selected.length;
+        System.arraycopy(selected, 0, list, 1, selected.length);
+    }
+
+    private int maxConnections(int level) {
+        return level == 0 ? maxConnectionsLevel0 : m;
+    }
+
+    private float similarity(float[] query, int node) {
+        int offset = node * dimensions;
+        float dot = 0;
+        for (int i = 0; i < dimensions; i++) {
+            dot += query[i] * vectors[offset + i];
+        }
+        return dot;
+    }
+
+    private float similarity(int a, int b) {
+        int offsetA = a * dimensions;
+        int offsetB = b * dimensions;
+        float dot = 0;
+        for (int i = 0; i < dimensions; i++) {
+            dot += vectors[offsetA + i] * vectors[offsetB + i];
+        }
+        return dot;
+    }
+
+    private void ensureCapacity(int nodes) {
+        if (nodes <= levels.length) {
+            return;
+        }
+        int capacity = Math.max(nodes, levels.length * 2);
+        vectors = Arrays.copyOf(vectors, capacity * dimensions);
+        levels = Arrays.copyOf(levels, capacity);
+        neighbours = Arrays.copyOf(neighbours, capacity);
+    }
+
+    private static boolean contains(int[] values, int count, int value) {
+        for (int i = 0; i < count; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    record Scored(int node, float score) {
+    }
+}
@@ -0,0 +1,24 @@
+package dev.mkopp.mysite.ai.chat.infrastructure.adapter.out.vectorstore;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Persists the HNSW index shortly after it changes; re-indexing touches many posts in a row,
+ * one snapshot per interval keeps that from rewriting the file for each of them.
+ */
+@Component
+@ConditionalOnProperty(name = "application.ai.rag.store", havingValue = "hnsw")
+@RequiredArgsConstructor
+class HnswSnapshotWriter {
+
+    private final HnswVectorStore vectorStore;
+
+    @Scheduled(fixedDelayString = "${application.ai.rag.hnsw.snapshot-interval:PT1M}")
+    void writeSnapshot() {
+        vectorStore.saveIfDirty();
+    }
+}
@@ -0,0 +1,340 @@
+package dev.mkopp.mysite.ai.chat.infrastructure.adapter.out.vectorstore;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.ai.vectorstore.filter.Filter;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-process {@link VectorStore} backed by an {@link HnswGraph}, for setups without pgvector.
+ * Queries visit a few hundred vectors instead of all of them, unlike {@code SimpleVectorStore}.
+ * <p>
+ * Filter expressions are evaluated against the metadata of each candidate. When the approximate
+ * search yields fewer than top-k matches for a selective filter, the store falls back to an exact
+ * scan over the matching documents. Replaced and deleted documents stay in the graph as tombstones
+ * until they make up half of it, then the graph is rebuilt from the stored vectors without calling
+ * the embedding model.
+ * <p>
+ * Snapshots are a compact binary file written atomically by {@link #saveIfDirty()} and read back
+ * by {@link #load}; the embedding model is only needed for new documents and queries.
+ */
+@Slf4j
+public class HnswVectorStore implements VectorStore {
+
+    private static final int SNAPSHOT_MAGIC = 0x484E5357; // "HNSW"
+    private static final int SNAPSHOT_VERSION = 1;
+    private static final long SEED = 42;
+    private static final TypeReference<Map<String, Object>> METADATA_TYPE = new TypeReference<>() {
+    };
+
+    private final EmbeddingModel embeddingModel;
+    private final ObjectMapper objectMapper;
+    private final int m;
+    private final int efConstruction;
+    private final int efSearch;
+    private final Path snapshotFile;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private HnswGraph graph;
+    private final List<StoredDocument> documents = new ArrayList<>();
+    private final Map<String, Integer> nodesById = new HashMap<>();
+    private final BitSet deleted = new BitSet();
+    private int deletedCount;
+    private volatile boolean dirty;
+
+    public HnswVectorStore(EmbeddingModel embeddingModel, ObjectMapper objectMapper, int m, int efConstruction,
+            int efSearch, Path snapshotFile) {
+        this.embeddingModel = embeddingModel;
+        this.objectMapper = objectMapper;
+        this.m = m;
+        this.efConstruction = efConstruction;
+        this.efSearch = efSearch;
+        this.snapshotFile = snapshotFile;
+    }
+
+    @Override
+    public void add(List<Document> newDocuments) {
+        if (newDocuments.isEmpty()) {
+            return;
+        }
+        // embedding is the slow part and needs no lock
+        List<float[]> embeddings = embeddingModel.embed(newDocuments.stream().map(Document::getText).toList());
+        lock.writeLock().lock();
+        try {
+            for (int i = 0; i < newDocuments.size(); i++) {
+                Document document = newDocuments.get(i);
+                float[] vector = normalize(embeddings.get(i));
+                if (graph == null) {
+                    graph = new HnswGraph(vector.length, m, efConstruction, SEED);
+                }
+                markDeleted(document.getId());
+                int node = graph.add(vector);
+                documents.add(new StoredDocument(document.getId(), document.getText(), new HashMap<>(document.getMetadata())));
+                nodesById.put(document.getId(), node);
+            }
+            compactIfNeeded();
+            dirty = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void delete(List<String> idList) {
+        lock.writeLock().lock();
+        try {
+            idList.forEach(this::markDeleted);
+            compactIfNeeded();
+            dirty = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void delete(Filter.Expression filterExpression) {
+        Set<String> ids = findIds(filterExpression);
+        delete(List.copyOf(ids));
+    }
+
+    @Override
+    public List<Document> similaritySearch(SearchRequest request) {
+        float[] query = normalize(embeddingModel.embed(request.getQuery()));
+        Predicate<Map<String, Object>> filter = MetadataFilter.of(request.getFilterExpression());
+        lock.readLock().lock();
+        try {
+            if (graph == null) {
+                return List.of();
+            }
+            IntPredicate accept = node -> !deleted.get(node) && filter.test(documents.get(node).metadata());
+            List<HnswGraph.Scored> hits = graph.search(query, request.getTopK(), efSearch, accept);
+            if (hits.size() < request.getTopK() && request.hasFilterExpression()) {
+                hits = graph.exactSearch(query, request.getTopK(), accept);
+            }
+            List<Document> result = new ArrayList<>(hits.size());
+            for (HnswGraph.Scored hit : hits) {
+                if (hit.score() < request.getSimilarityThreshold()) {
+                    break;
+                }
+                StoredDocument stored = documents.get(hit.node());
+                result.add(Document.builder()
+                        .id(stored.id())
+                        .text(stored.text())
+                        .metadata(stored.metadata())
+                        .score((double) hit.score())
+                        .build());
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * IDs of the live documents matching the filter.
+     */
+    public Set<String> findIds(Filter.Expression filterExpression) {
+        Predicate<Map<String, Object>> filter = MetadataFilter.of(filterExpression);
+        lock.readLock().lock();
+        try {
+            Set<String> ids = new HashSet<>();
+            nodesById.forEach((id, node) -> {
+                if (filter.test(documents.get(node).metadata())) {
+                    ids.add(id);
+                }
+            });
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return nodesById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Writes a snapshot if anything changed since the last one.
+     */
+    public void saveIfDirty() {
+        if (!dirty || snapshotFile == null) {
+            return;
+        }
+        lock.readLock().lock();
+        try {
+            dirty = false;
+            Path temp = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+            Files.createDirectories(snapshotFile.toAbsolutePath().getParent());
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                writeSnapshot(out);
+            }
+            Files.move(temp, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.info("Saved HNSW snapshot with {} documents to {}", nodesById.size(), snapshotFile);
+        } catch (IOException e) {
+            dirty = true;
+            log.warn("Failed to save HNSW snapshot to {}", snapshotFile, e);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the contents of this store with the snapshot, if one exists.
+     */
+    public void load() {
+        if (snapshotFile == null || !Files.isRegularFile(snapshotFile)) {
+            return;
+        }
+        lock.writeLock().lock();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshotFile)))) {
+            readSnapshot(in);
+            log.info("Loaded HNSW snapshot with {} documents from {}", nodesById.size(), snapshotFile);
+        } catch (IOException | RuntimeException e) {
+            clear();
+            log.warn("Ignoring unreadable HNSW snapshot {}", snapshotFile, e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void writeSnapshot(DataOutputStream out) throws IOException {
+        out.writeInt(SNAPSHOT_MAGIC);
+        out.writeInt(SNAPSHOT_VERSION);
+        out.writeBoolean(graph != null);
+        if (graph == null) {
+            return;
+        }
+        graph.writeTo(out);
+        for (int node = 0; node < documents.size(); node++) {
+            StoredDocument document = documents.get(node);
+            out.writeBoolean(deleted.get(node));
+            writeString(out, document.id());
+            writeString(out, document.text());
+            writeString(out, objectMapper.writeValueAsString(document.metadata()));
+        }
+    }
+
+    private void readSnapshot(DataInputStream in) throws IOException {
+        if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION) {
+            throw new IOException("Not an HNSW snapshot of version " + SNAPSHOT_VERSION);
+        }
+        clear();
+        if (!in.readBoolean()) {
+            return;
+        }
+        graph = HnswGraph.readFrom(in, SEED);
+        for (int node = 0; node < graph.size(); node++) {
+            boolean isDeleted = in.readBoolean();
+            String id = readString(in);
+            String text = readString(in);
+            Map<String, Object> metadata = objectMapper.readValue(readString(in), METADATA_TYPE);
+            documents.add(new StoredDocument(id, text, metadata));
+            if (isDeleted) {
+                deleted.set(node);
+                deletedCount++;
+            } else {
+                nodesById.put(id, node);
+            }
+        }
+    }
+
+    private void markDeleted(String id) {
+        Integer node = nodesById.remove(id);
+        if (node != null) {
+            deleted.set(node);
+            deletedCount++;
+        }
+    }
+
+    private void compactIfNeeded() {
+        if (graph == null || deletedCount * 2 < graph.size() || deletedCount < 64) {
+            return;
+        }
+        HnswGraph rebuilt = new HnswGraph(graph.dimensions(), m, efConstruction, SEED);
+        List<StoredDocument> live = new ArrayList<>(nodesById.size());
+        Map<String, Integer> liveNodes = new HashMap<>();
+        for (int node = 0; node < graph.size(); node++) {
+            if (!deleted.get(node)) {
+                StoredDocument document = documents.get(node);
+                liveNodes.put(document.id(), rebuilt.add(graph.vector(node)));
+                live.add(document);
+            }
+        }
+        log.info("Rebuilt HNSW graph without {} deleted documents", deletedCount);
+        clear();
+        graph = rebuilt;
+        documents.addAll(live);
+        nodesById.putAll(liveNodes);
+    }
+
+    private void clear() {
+        graph = null;
+        documents.clear();
+        nodesById.clear();
+        deleted.clear();
+        deletedCount = 0;
+    }
+
+    static float[] normalize(float[] vector) {
+        double norm = 0;
+        for (float value : vector) {
+            norm += value * value;
+        }
+        float[] normalized = new float[vector.length];
+        if (norm == 0) {
+            return normalized;
+        }
+        float scale = (float) (1 / Math.sqrt(norm));
+        for (int i = 0; i < vector.length; i++) {
+            normalized[i] = vector[i] * scale;
+        }
+        return normalized;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value != null ? value.getBytes(StandardCharsets.UTF_8) : new byte[0];
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private record StoredDocument(String id, String text, Map<String, Object> metadata) {
+    }
+}
@@ -0,0 +1,132 @@
+package dev.mkopp.mysite.ai.chat.infrastructure.adapter.out.vectorstore;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.ai.vectorstore.filter.Filter;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Read-only {@link VectorStore} over a {@link QuantizedVectorFile}. Opening maps the file instead of
+ * parsing it, so startup takes milliseconds and the vectors live in the page cache, not on the heap.
+ * <p>
+ * Searches scan the int8 vectors and rescore {@code rescoreFactor} times top-k candidates with the
+ * full-precision floats, so results match an exact search except for near ties. Filter expressions
+ * parse the metadata of every entry they test; the store is meant for small, static corpora such
+ * as the README, collections that change belong in pgvector or the {@link HnswVectorStore}.
+ */
+public class MappedVectorStore implements VectorStore, AutoCloseable {
+
+    private static final TypeReference<Map<String, Object>> METADATA_TYPE = new TypeReference<>() {
+    };
+
+    private final EmbeddingModel embeddingModel;
+    private final ObjectMapper objectMapper;
+    private final QuantizedVectorFile file;
+    private final int rescoreFactor;
+
+    private MappedVectorStore(EmbeddingModel embeddingModel, ObjectMapper objectMapper, QuantizedVectorFile file,
+            int rescoreFactor) {
+        this.embeddingModel = embeddingModel;
+        this.objectMapper = objectMapper;
+        this.file = file;
+        this.rescoreFactor = rescoreFactor;
+    }
+
+    public static MappedVectorStore open(Path path, EmbeddingModel embeddingModel, ObjectMapper objectMapper,
+            int rescoreFactor) throws IOException {
+        return new MappedVectorStore(embeddingModel, objectMapper, QuantizedVectorFile.open(path), rescoreFactor);
+    }
+
+    /**
+     * Embeds the documents and writes them as a new vector file, replacing an existing one.
+     */
+    public static void write(Path path, List<Document> documents, EmbeddingModel embeddingModel,
+            ObjectMapper objectMapper) throws IOException {
+        List<float[]> embeddings = embeddingModel.embed(documents.stream().map(Document::getText).toList());
+        List<QuantizedVectorFile.Entry> entries = new ArrayList<>(documents.size());
+        for (int i = 0; i < documents.size(); i++) {
+            Document document = documents.get(i);
+            entries.add(new QuantizedVectorFile.Entry(document.getId(), document.getText(),
+                    objectMapper.writeValueAsString(document.getMetadata()), embeddings.get(i)));
+        }
+        QuantizedVectorFile.write(path, entries);
+    }
+
+    public int size() {
+        return file.count();
+    }
+
+    @Override
+    public void add(List<Document> documents) {
+        throw new UnsupportedOperationException("Mapped vector files are read-only, rewrite them with write()");
+    }
+
+    @Override
+    public void delete(List<String> idList) {
+        throw new UnsupportedOperationException("Mapped vector files are read-only, rewrite them with write()");
+    }
+
+    @Override
+    public void delete(Filter.Expression filterExpression) {
+        throw new UnsupportedOperationException("Mapped vector files are read-only, rewrite them with write()");
+    }
+
+    @Override
+    public List<Document> similaritySearch(SearchRequest request) {
+        if (file.count() == 0) {
+            return List.of();
+        }
+        float[] query = HnswVectorStore.normalize(embeddingModel.embed(request.getQuery()));
+        if (query.length != file.dimensions()) {
+            throw new IllegalArgumentException("Query has " + query.length + " dimensions, the vector file "
+                    + file.dimensions());
+        }
+        IntPredicate accept = index -> true;
+        if (request.hasFilterExpression()) {
+            Predicate<Map<String, Object>> filter = MetadataFilter.of(request.getFilterExpression());
+            accept = index -> filter.test(metadata(file.entry(index)));
+        }
+
+        List<Document> result = new ArrayList<>();
+        for (QuantizedVectorFile.Hit hit : file.search(query, request.getTopK(),
+                request.getTopK() * rescoreFactor, accept)) {
+            if (hit.score() < request.getSimilarityThreshold()) {
+                break;
+            }
+            QuantizedVectorFile.Entry entry = file.entry(hit.index());
+            result.add(Document.builder()
+                    .id(entry.id())
+                    .text(entry.text())
+                    .metadata(metadata(entry))
+                    .score((double) hit.score())
+                    .build());
+        }
+        return result;
+    }
+
+    @Override
+    public void close() throws IOException {
+        file.close();
+    }
+
+    private Map<String, Object> metadata(QuantizedVectorFile.Entry entry) {
+        try {
+            return objectMapper.readValue(entry.metadataJson(), METADATA_TYPE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unreadable metadata of vector entry " + entry.id(), e);
+        }
+    }
+}
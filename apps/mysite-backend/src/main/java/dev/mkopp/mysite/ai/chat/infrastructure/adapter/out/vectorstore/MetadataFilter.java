@@ -0,0 +1,83 @@
+package dev.mkopp.mysite.ai.chat.infrastructure.adapter.out.vectorstore;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+
+import org.springframework.ai.vectorstore.filter.Filter;
+
+/**
+ * Evaluates Spring AI filter expressions against document metadata in memory. Numbers compare by
+ * value regardless of their boxed type, everything else by {@link Object#equals} or, for ordering,
+ * by its string form.
+ */
+final class MetadataFilter {
+
+    private MetadataFilter() {
+    }
+
+    static Predicate<Map<String, Object>> of(Filter.Expression expression) {
+        if (expression == null) {
+            return metadata -> true;
+        }
+        return switch (expression.type()) {
+            case AND -> of(operand(expression.left())).and(of(operand(expression.right())));
+            case OR -> of(operand(expression.left())).or(of(operand(expression.right())));
+            case NOT -> of(operand(expression.left())).negate();
+            case EQ -> compare(expression, cmp -> cmp == 0);
+            case NE -> compare(expression, cmp -> cmp != 0);
+            case GT -> compare(expression, cmp -> cmp > 0);
+            case GTE -> compare(expression, cmp -> cmp >= 0);
+            case LT -> compare(expression, cmp -> cmp < 0);
+            case LTE -> compare(expression, cmp -> cmp <= 0);
+            case IN -> in(expression);
+            case NIN -> in(expression).negate();
+        };
+    }
+
+    private static Filter.Expression operand(Filter.Operand operand) {
+        if (operand instanceof Filter.Group group) {
+            return group.content();
+        }
+        if (operand instanceof Filter.Expression expression) {
+            return expression;
+        }
+        throw new IllegalArgumentException("Expected an expression but got " + operand);
+    }
+
+    private static Predicate<Map<String, Object>> compare(Filter.Expression expression,
+            IntPredicate outcome) {
+        String key = ((Filter.Key) expression.left()).key();
+        Object expected = ((Filter.Value) expression.right()).value();
+        return metadata -> {
+            Object actual = metadata.get(key);
+            if (actual == null) {
+                return expression.type() == Filter.ExpressionType.NE && expected != null;
+            }
+            return outcome.test(compare(actual, expected));
+        };
+    }
+
+    private static Predicate<Map<String, Object>> in(Filter.Expression expression) {
+        String key = ((Filter.Key) expression.left()).key();
+        Object values = ((Filter.Value) expression.right()).value();
+        Collection<?> candidates = values instanceof Collection<?> collection ? collection : List.of(values);
+        return metadata -> {
+            Object actual = metadata.get(key);
+            return actual != null && candidates.stream().anyMatch(candidate -> compare(actual, candidate) == 0);
+        };
+    }
+
+    private static int compare(Object actual, Object expected) {
+        if (actual instanceof Number a && expected instanceof Number b) {
+            return Double.compare(a.doubleValue(), b.doubleValue());
+        }
+        if (Objects.equals(actual, expected)) {
+            return 0;
+        }
+        return String.valueOf(actual).compareTo(String.valueOf(expected));
+    }
+}
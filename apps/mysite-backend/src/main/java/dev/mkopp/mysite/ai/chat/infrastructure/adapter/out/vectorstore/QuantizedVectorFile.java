@@ -0,0 +1,239 @@
+package dev.mkopp.mysite.ai.chat.infrastructure.adapter.out.vectorstore;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.IntPredicate;
+
+/**
+ * Binary vector file, read through memory mapping so opening it costs no parsing and almost no heap.
+ * <p>
+ * Layout, big endian:
+ * <pre>
+ * header     magic "QVEC", version, dimensions, count, then the offsets of the four sections (long)
+ * quantized  count x dimensions int8, vectors normalized to unit length and scaled to [-127, 127]
+ * scales     count x float, per-vector factor turning the int8 components back into floats
+ * vectors    count x dimensions float, full precision, only read to rescore the best candidates
+ * side table count x long offsets of the entries within this section, then per entry id, text
+ *            and metadata JSON, each as int length plus UTF-8 bytes
+ * </pre>
+ * A search scores every vector on the int8 section, which is a quarter the size of the floats,
+ * and rescores a few times top-k candidates with full precision. Each section must stay below 2 GB.
+ */
+final class QuantizedVectorFile implements AutoCloseable {
+
+    private static final int MAGIC = 0x51564543; // "QVEC"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 4 * 4 + 4 * 8;
+
+    private final FileChannel channel;
+    private final int dimensions;
+    private final int count;
+    private final MappedByteBuffer quantized;
+    private final MappedByteBuffer scales;
+    private final MappedByteBuffer vectors;
+    private final MappedByteBuffer sideTable;
+
+    private QuantizedVectorFile(FileChannel channel) throws IOException {
+        this.channel = channel;
+        ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+        if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+            throw new IOException("Not a quantized vector file of version " + VERSION);
+        }
+        this.dimensions = header.getInt();
+        this.count = header.getInt();
+        long quantizedOffset = header.getLong();
+        long scalesOffset = header.getLong();
+        long vectorsOffset = header.getLong();
+        long sideTableOffset = header.getLong();
+        this.quantized = map(quantizedOffset, scalesOffset);
+        this.scales = map(scalesOffset, vectorsOffset);
+        this.vectors = map(vectorsOffset, sideTableOffset);
+        this.sideTable = map(sideTableOffset, channel.size());
+    }
+
+    static QuantizedVectorFile open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            return new QuantizedVectorFile(channel);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Writes the entries atomically, replacing an existing file.
+     */
+    static void write(Path file, List<Entry> entries) throws IOException {
+        int dimensions = entries.isEmpty() ? 0 : entries.get(0).vector().length;
+        int count = entries.size();
+        long quantizedOffset = HEADER_BYTES;
+        long scalesOffset = quantizedOffset + (long) count * dimensions;
+        long vectorsOffset = scalesOffset + 4L * count;
+        long sideTableOffset = vectorsOffset + 4L * count * dimensions;
+
+        List<byte[][]> encoded = new ArrayList<>(count);
+        for (Entry entry : entries) {
+            encoded.add(new byte[][] {utf8(entry.id()), utf8(entry.text()), utf8(entry.metadataJson())});
+        }
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        if (file.toAbsolutePath().getParent() != null) {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+        }
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(dimensions);
+            out.writeInt(count);
+            out.writeLong(quantizedOffset);
+            out.writeLong(scalesOffset);
+            out.writeLong(vectorsOffset);
+            out.writeLong(sideTableOffset);
+
+            float[][] normalized = new float[count][];
+            float[] vectorScales = new float[count];
+            for (int i = 0; i < count; i++) {
+                float[] vector = entries.get(i).vector();
+                if (vector.length != dimensions) {
+                    throw new IllegalArgumentException("Entry " + entries.get(i).id() + " has " + vector.length
+                            + " dimensions, expected " + dimensions);
+                }
+                normalized[i] = HnswVectorStore.normalize(vector);
+                float maxAbs = 0;
+                for (float value : normalized[i]) {
+                    maxAbs = Math.max(maxAbs, Math.abs(value));
+                }
+                vectorScales[i] = maxAbs == 0 ? 0 : maxAbs / 127;
+                for (float value : normalized[i]) {
+                    out.writeByte(vectorScales[i] == 0 ? 0 : Math.round(value / vectorScales[i]));
+                }
+            }
+            for (float scale : vectorScales) {
+                out.writeFloat(scale);
+            }
+            for (float[] vector : normalized) {
+                for (float value : vector) {
+                    out.writeFloat(value);
+                }
+            }
+
+            long entryOffset = 8L * count;
+            for (byte[][] fields : encoded) {
+                out.writeLong(entryOffset);
+                entryOffset += 12 + fields[0].length + fields[1].length + fields[2].length;
+            }
+            for (byte[][] fields : encoded) {
+                for (byte[] field : fields) {
+                    out.writeInt(field.length);
+                    out.write(field);
+                }
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    int dimensions() {
+        return dimensions;
+    }
+
+    int count() {
+        return count;
+    }
+
+    /**
+     * Top-k by cosine similarity for a unit-length query, best first. The int8 pass selects
+     * {@code rescoreCandidates} vectors, which are then scored with their full-precision floats.
+     * Only entries accepted by {@code accept} are considered.
+     */
+    List<Hit> search(float[] query, int k, int rescoreCandidates, IntPredicate accept) {
+        int candidates = Math.min(count, Math.max(k, rescoreCandidates));
+        PriorityQueue<Hit> approximate = new PriorityQueue<>(Comparator.comparingDouble(Hit::score));
+        for (int i = 0; i < count; i++) {
+            if (!accept.test(i)) {
+                continue;
+            }
+            int offset = i * dimensions;
+            float dot = 0;
+            for (int d = 0; d < dimensions; d++) {
+                dot += quantized.get(offset + d) * query[d];
+            }
+            float score = dot * scales.getFloat(4 * i);
+            if (approximate.size() < candidates) {
+                approximate.add(new Hit(i, score));
+            } else if (score > approximate.peek().score()) {
+                approximate.poll();
+                approximate.add(new Hit(i, score));
+            }
+        }
+
+        List<Hit> rescored = new ArrayList<>(approximate.size());
+        for (Hit hit : approximate) {
+            int offset = 4 * hit.index() * dimensions;
+            float dot = 0;
+            for (int d = 0; d < dimensions; d++) {
+                dot += vectors.getFloat(offset + 4 * d) * query[d];
+            }
+            rescored.add(new Hit(hit.index(), dot));
+        }
+        rescored.sort(Comparator.comparingDouble(Hit::score).reversed());
+        return rescored.subList(0, Math.min(k, rescored.size()));
+    }
+
+    Entry entry(int index) {
+        int position = (int) sideTable.getLong(8 * index);
+        ByteBuffer view = sideTable.duplicate().position(position);
+        String id = readString(view);
+        String text = readString(view);
+        String metadataJson = readString(view);
+        float[] vector = new float[dimensions];
+        for (int d = 0; d < dimensions; d++) {
+            vector[d] = vectors.getFloat(4 * (index * dimensions + d));
+        }
+        return new Entry(id, text, metadataJson, vector);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private MappedByteBuffer map(long from, long to) throws IOException {
+        if (to - from > Integer.MAX_VALUE) {
+            throw new IOException("Vector file section exceeds 2 GB");
+        }
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+        buffer.order(ByteOrder.BIG_ENDIAN);
+        return buffer;
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] utf8(String value) {
+        return value != null ? value.getBytes(StandardCharsets.UTF_8) : new byte[0];
+    }
+
+    record Entry(String id, String text, String metadataJson, float[] vector) {
+    }
+
+    record Hit(int index, float score) {
+    }
+}
@@ -0,0 +1,44 @@
+package dev.mkopp.mysite.ai.chat.infrastructure.adapter.out.vectorstore;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Converts the JSON files written by {@code SimpleVectorStore.save} into a {@link QuantizedVectorFile},
+ * reusing the stored embeddings instead of calling the embedding model again.
+ */
+public final class SimpleVectorStoreConverter {
+
+    private static final TypeReference<Map<String, StoredContent>> CONTENT_TYPE = new TypeReference<>() {
+    };
+
+    private SimpleVectorStoreConverter() {
+    }
+
+    /**
+     * @return the number of converted documents
+     */
+    public static int convert(Path json, Path target, ObjectMapper objectMapper) throws IOException {
+        Map<String, StoredContent> contents = objectMapper.readValue(json.toFile(), CONTENT_TYPE);
+        List<QuantizedVectorFile.Entry> entries = new ArrayList<>(contents.size());
+        for (StoredContent content : contents.values()) {
+            entries.add(new QuantizedVectorFile.Entry(content.id(), content.text(),
+                    objectMapper.writeValueAsString(content.metadata() != null ? content.metadata() : Map.of()),
+                    content.embedding()));
+        }
+        QuantizedVectorFile.write(target, entries);
+        return entries.size();
+    }
+
+    // mirrors the JSON shape of SimpleVectorStoreContent
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    private record StoredContent(String id, String text, Map<String, Object> metadata, float[] embedding) {
+    }
+}
@@ -0,0 +1,12 @@
+package dev.mkopp.mysite.blog.api;
+
+import dev.mkopp.mysite.blog.api.dto.BlogPostContentDto;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface BlogPostApi {
+    Optional<BlogPostContentDto> getPostContent(UUID blogPostId);
+    List<UUID> getAllPostIds();
+}
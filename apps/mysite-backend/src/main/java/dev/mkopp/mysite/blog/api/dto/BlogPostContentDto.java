@@ -0,0 +1,15 @@
+package dev.mkopp.mysite.blog.api.dto;
+
+import java.time.Instant;
+import java.util.Set;
+import java.util.UUID;
+
+public record BlogPostContentDto(
+    UUID id,
+    String slug,
+    String title,
+    String description,
+    String content,
+    Set<String> tags,
+    Instant publishedAt
+) {}
@@ -0,0 +1,2 @@
+@org.springframework.modulith.NamedInterface("dto")
+package dev.mkopp.mysite.blog.api.dto;
@@ -0,0 +1,13 @@
+package dev.mkopp.mysite.blog.api.event;
+
+import org.jmolecules.event.annotation.DomainEvent;
+import org.springframework.modulith.events.Externalized;
+
+import java.util.UUID;
+
+@DomainEvent
+@Externalized("blog.post.deleted::#{slug()}")
+public record BlogPostDeletedEvent(
+    UUID id,
+    String slug
+) {}
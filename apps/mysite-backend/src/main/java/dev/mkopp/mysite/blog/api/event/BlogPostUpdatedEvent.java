@@ -0,0 +1,15 @@
+package dev.mkopp.mysite.blog.api.event;
+
+import org.jmolecules.event.annotation.DomainEvent;
+import org.springframework.modulith.events.Externalized;
+
+import java.util.UUID;
+
+@DomainEvent
+@Externalized("blog.post.updated::#{slug()}")
+public record BlogPostUpdatedEvent(
+    UUID id,
+    String slug,
+    String title,
+    UUID authorId
+) {}
@@ -0,0 +1,2 @@
+@org.springframework.modulith.NamedInterface("event")
+package dev.mkopp.mysite.blog.api.event;
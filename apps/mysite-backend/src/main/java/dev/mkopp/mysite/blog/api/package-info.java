@@ -0,0 +1,2 @@
+@org.springframework.modulith.NamedInterface("api")
+package dev.mkopp.mysite.blog.api;
@@ -0,0 +1,13 @@
+package dev.mkopp.mysite.blog.application.dto;
+
+import java.util.UUID;
+
+/**
+ * Engagement numbers of one post as shown on a post card.
+ */
+public record BlogPostStats(
+    UUID blogPostId,
+    long likeCount,
+    boolean likedByViewer,
+    long commentCount
+) {}
@@ -0,0 +1,15 @@
+package dev.mkopp.mysite.blog.application.dto;
+
+import java.time.Instant;
+
+/**
+ * Cheap fingerprint of a readable resource, used to answer conditional requests
+ * without loading the resource itself.
+ *
+ * @param key          identifies the state besides time, e.g. an id or the number of rows
+ * @param lastModified latest {@code updated_at} (or {@code created_at}) covered by the resource
+ */
+public record ContentVersion(
+    String key,
+    Instant lastModified
+) {}
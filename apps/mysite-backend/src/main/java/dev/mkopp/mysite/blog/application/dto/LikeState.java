@@ -0,0 +1,9 @@
+package dev.mkopp.mysite.blog.application.dto;
+
+/**
+ * Like state of a post or comment for one user right after a toggle.
+ */
+public record LikeState(
+    boolean liked,
+    long count
+) {}
@@ -0,0 +1,10 @@
+package dev.mkopp.mysite.blog.application.dto;
+
+/**
+ * Outcome of a like toggle on the like rows: the user's new state and the net change of the
+ * total (+1, -1, or 0 when a concurrent toggle already got there first).
+ */
+public record LikeToggle(
+    boolean liked,
+    int delta
+) {}
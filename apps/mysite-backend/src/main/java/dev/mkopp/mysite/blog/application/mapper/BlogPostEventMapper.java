@@ -1,6 +1,8 @@
 package dev.mkopp.mysite.blog.application.mapper;
 
+import dev.mkopp.mysite.blog.api.event.BlogPostDeletedEvent;
 import dev.mkopp.mysite.blog.api.event.BlogPostPublishedEvent;
+import dev.mkopp.mysite.blog.api.event.BlogPostUpdatedEvent;
 import dev.mkopp.mysite.blog.domain.model.BlogPost;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
@@ -14,4 +16,9 @@ public interface BlogPostEventMapper {
     
     @Mapping(target = "authorId", source = "author.id")
     BlogPostPublishedEvent toPublishedEvent(BlogPost blogPost);
+    
+    @Mapping(target = "authorId", source = "author.id")
+    BlogPostUpdatedEvent toUpdatedEvent(BlogPost blogPost);
+    
+    BlogPostDeletedEvent toDeletedEvent(BlogPost blogPost);
 }
@@ -1,9 +1,14 @@
 package dev.mkopp.mysite.blog.application.port.in;
 
+import dev.mkopp.mysite.blog.application.dto.ContentVersion;
 import dev.mkopp.mysite.blog.domain.model.BlogPost;
+import dev.mkopp.mysite.blog.domain.model.BlogPostSummary;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 
+import java.util.Optional;
 import java.util.UUID;
 
 public interface GetBlogPostUseCase {
@@ -11,4 +16,9 @@ public interface GetBlogPostUseCase {
     BlogPost findBySlug(String slug);
     BlogPost findById(UUID id);
     Page<BlogPost> findByTag(String tagName, Pageable pageable);
+    Window<BlogPost> scrollAll(ScrollPosition position, int limit);
+    Page<BlogPostSummary> findAllSummaries(Pageable pageable);
+    Page<BlogPostSummary> findSummariesByTag(String tagName, Pageable pageable);
+    Optional<ContentVersion> findVersionBySlug(String slug);
+    ContentVersion getCatalogVersion();
 }
@@ -0,0 +1,9 @@
+package dev.mkopp.mysite.blog.application.port.in;
+
+import dev.mkopp.mysite.blog.domain.model.BlogPostSearchHit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+public interface SearchBlogPostsUseCase {
+    Page<BlogPostSearchHit> search(String query, Pageable pageable);
+}
@@ -1,17 +1,34 @@
 package dev.mkopp.mysite.blog.application.port.out;
 
+import dev.mkopp.mysite.blog.application.dto.ContentVersion;
 import dev.mkopp.mysite.blog.domain.model.BlogPost;
+import dev.mkopp.mysite.blog.domain.model.BlogPostSearchHit;
+import dev.mkopp.mysite.blog.domain.model.BlogPostSummary;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 public interface BlogPostRepository {
     BlogPost save(BlogPost blogPost);
     Optional<BlogPost> findById(UUID id);
+    List<UUID> findAllIds();
+    Set<UUID> findExistingIds(Collection<UUID> ids);
     Optional<BlogPost> findBySlug(String slug);
     Page<BlogPost> findAll(Pageable pageable);
     Page<BlogPost> findByTagName(String tagName, Pageable pageable);
+    Window<BlogPost> scrollAll(ScrollPosition position, int limit);
+    Page<BlogPostSummary> findAllSummaries(Pageable pageable);
+    List<BlogPostSummary> findAllSummaries();
+    Page<BlogPostSummary> findSummariesByTagName(String tagName, Pageable pageable);
+    Page<BlogPostSearchHit> search(String query, Pageable pageable);
+    Optional<ContentVersion> findVersionBySlug(String slug);
+    ContentVersion findCatalogVersion();
     void deleteById(UUID id);
 }
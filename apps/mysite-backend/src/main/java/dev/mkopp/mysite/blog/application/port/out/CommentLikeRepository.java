@@ -1,14 +1,25 @@
 package dev.mkopp.mysite.blog.application.port.out;
 
+import dev.mkopp.mysite.blog.application.dto.LikeState;
 import dev.mkopp.mysite.blog.domain.model.CommentLike;
 
+import java.util.Collection;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 public interface CommentLikeRepository {
     CommentLike save(CommentLike commentLike);
     Optional<CommentLike> findByCommentIdAndUserId(UUID commentId, UUID userId);
     void delete(CommentLike commentLike);
+    
+    /**
+     * Removes the user's like if present, adds it otherwise, and keeps the comment's like count in step,
+     * in a single round trip.
+     */
+    LikeState toggle(UUID commentId, UUID userId);
+    
     long countByCommentId(UUID commentId);
     boolean existsByCommentIdAndUserId(UUID commentId, UUID userId);
+    Set<UUID> findLikedCommentIds(UUID userId, Collection<UUID> commentIds);
 }
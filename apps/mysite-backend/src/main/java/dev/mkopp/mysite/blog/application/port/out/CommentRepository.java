@@ -1,9 +1,15 @@
 package dev.mkopp.mysite.blog.application.port.out;
 
+import dev.mkopp.mysite.blog.application.dto.ContentVersion;
 import dev.mkopp.mysite.blog.domain.model.Comment;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -11,8 +17,19 @@ public interface CommentRepository {
     Comment save(Comment comment);
     Optional<Comment> findById(UUID id);
     Page<Comment> findTopLevelByBlogPostId(UUID blogPostId, Pageable pageable);
+    Window<Comment> scrollTopLevelByBlogPostId(UUID blogPostId, ScrollPosition position, int limit);
     Page<Comment> findRepliesByParentCommentId(UUID parentCommentId, Pageable pageable);
+    /**
+     * Top-level comments and their replies down to {@code maxDepth} levels, breadth-first,
+     * at most {@code maxNodes} comments. Parents are always returned before their replies.
+     */
+    List<Comment> findThreadByBlogPostId(UUID blogPostId, int maxDepth, int maxNodes);
     long countByBlogPostId(UUID blogPostId);
+    Map<UUID, Long> countByBlogPostIds(Collection<UUID> blogPostIds);
     long countByParentCommentId(UUID parentCommentId);
+    Optional<UUID> findBlogPostIdById(UUID commentId);
+    ContentVersion findThreadVersion(UUID blogPostId);
+    void adjustReplyCount(UUID commentId, long delta);
+    int reconcileCounters();
     void deleteById(UUID id);
 }
@@ -0,0 +1,31 @@
+package dev.mkopp.mysite.blog.application.port.out;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Persisted per-post like totals, maintained write-behind.
+ */
+public interface LikeCountRepository {
+    /**
+     * Persisted total of the post, zero if it has none yet, or empty if the post does not exist.
+     */
+    OptionalLong findCountByBlogPostId(UUID blogPostId);
+    
+    /**
+     * Persisted totals of the posts that exist; IDs of unknown posts are missing from the result.
+     */
+    Map<UUID, Long> findCountsByBlogPostIds(Collection<UUID> blogPostIds);
+    
+    /**
+     * Adds the given deltas to the stored totals in one batch. Deltas for posts that no longer exist are dropped.
+     */
+    void addAll(Map<UUID, Long> deltasByBlogPostId);
+    
+    /**
+     * Recomputes every total from the like rows and returns the number of totals that were corrected.
+     */
+    int reconcile();
+}
@@ -1,14 +1,24 @@
 package dev.mkopp.mysite.blog.application.port.out;
 
+import dev.mkopp.mysite.blog.application.dto.LikeToggle;
 import dev.mkopp.mysite.blog.domain.model.Like;
 
+import java.util.Collection;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 public interface LikeRepository {
     Like save(Like like);
     Optional<Like> findByBlogPostIdAndUserId(UUID blogPostId, UUID userId);
     void delete(Like like);
+    
+    /**
+     * Removes the user's like if present, adds it otherwise, in a single round trip.
+     */
+    LikeToggle toggle(UUID blogPostId, UUID userId);
+    
     long countByBlogPostId(UUID blogPostId);
     boolean existsByBlogPostIdAndUserId(UUID blogPostId, UUID userId);
+    Set<UUID> findLikedBlogPostIds(UUID userId, Collection<UUID> blogPostIds);
 }
@@ -1,7 +0,0 @@
-package dev.mkopp.mysite.blog.application.port.out;
-
-import java.util.Set;
-
-public interface TagRepository {
-    Set<String> findOrCreateTags(Set<String> tagNames);
-}
@@ -0,0 +1,49 @@
+package dev.mkopp.mysite.blog.application.service;
+
+import dev.mkopp.mysite.blog.api.event.BlogPostDeletedEvent;
+import dev.mkopp.mysite.blog.api.event.BlogPostPublishedEvent;
+import dev.mkopp.mysite.blog.api.event.BlogPostUpdatedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Evicts cached posts once a write has committed, so readers never see a stale
+ * entry re-cached from a transaction that is still open.
+ * <p>
+ * This only reaches the cache of the instance that made the change; the others notice it
+ * through the version check on every cache hit in {@link BlogPostService#findBySlug}.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+class BlogPostCacheInvalidator {
+    
+    private final CacheManager cacheManager;
+    
+    @TransactionalEventListener
+    void on(BlogPostPublishedEvent event) {
+        evict(event.slug());
+    }
+    
+    @TransactionalEventListener
+    void on(BlogPostUpdatedEvent event) {
+        evict(event.slug());
+    }
+    
+    @TransactionalEventListener
+    void on(BlogPostDeletedEvent event) {
+        evict(event.slug());
+    }
+    
+    private void evict(String slug) {
+        Cache cache = cacheManager.getCache(BlogPostService.POSTS_BY_SLUG_CACHE);
+        if (cache != null) {
+            log.debug("Evicting cached blog post: {}", slug);
+            cache.evict(slug);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package dev.mkopp.mysite.blog.application.service;
+
+import dev.mkopp.mysite.blog.api.event.BlogPostDeletedEvent;
+import dev.mkopp.mysite.blog.api.event.BlogPostPublishedEvent;
+import dev.mkopp.mysite.blog.api.event.BlogPostUpdatedEvent;
+import dev.mkopp.mysite.blog.application.dto.ContentVersion;
+import dev.mkopp.mysite.blog.application.port.out.BlogPostRepository;
+import dev.mkopp.mysite.blog.domain.model.BlogPostSummary;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Optional in-memory catalog of all post summaries, enabled with
+ * {@code application.blog.catalog.enabled}. The blog holds thousands of posts, not millions,
+ * so the whole list fits comfortably in memory and list views can skip the database entirely.
+ * <p>
+ * The catalog is an immutable snapshot that is rebuilt after every committed post write and
+ * swapped atomically, readers never see a half-built catalog. While no snapshot is available
+ * (disabled, not built yet or the last rebuild failed) every lookup returns empty and callers
+ * fall back to the repository.
+ */
+@Component
+@Slf4j
+class BlogPostCatalog {
+    
+    private final BlogPostRepository blogPostRepository;
+    private final boolean enabled;
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+    
+    BlogPostCatalog(BlogPostRepository blogPostRepository,
+                    @Value("${application.blog.catalog.enabled:false}") boolean enabled) {
+        this.blogPostRepository = blogPostRepository;
+        this.enabled = enabled;
+    }
+    
+    Optional<Page<BlogPostSummary>> findAll(Pageable pageable) {
+        return Optional.ofNullable(snapshot.get())
+            .map(current -> page(current.posts(), pageable));
+    }
+    
+    Optional<Page<BlogPostSummary>> findByTag(String tagName, Pageable pageable) {
+        return Optional.ofNullable(snapshot.get())
+            .map(current -> page(current.postsByTag().getOrDefault(tagName, List.of()), pageable));
+    }
+    
+    Optional<ContentVersion> getVersion() {
+        return Optional.ofNullable(snapshot.get()).map(Snapshot::version);
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    void onStartup() {
+        rebuild();
+    }
+    
+    // safety net for changes that bypass the post write events, e.g. renamed authors or manual SQL
+    @Scheduled(fixedDelayString = "${application.blog.catalog.refresh-interval:PT15M}",
+        initialDelayString = "${application.blog.catalog.refresh-interval:PT15M}")
+    @Transactional(readOnly = true)
+    void refresh() {
+        rebuild();
+    }
+    
+    @TransactionalEventListener
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    void on(BlogPostPublishedEvent event) {
+        rebuild();
+    }
+    
+    @TransactionalEventListener
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    void on(BlogPostUpdatedEvent event) {
+        rebuild();
+    }
+    
+    @TransactionalEventListener
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    void on(BlogPostDeletedEvent event) {
+        rebuild();
+    }
+    
+    // serialized so a slow rebuild can never overwrite the result of a later one
+    private synchronized void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            ContentVersion version = blogPostRepository.findCatalogVersion();
+            Snapshot next = Snapshot.of(blogPostRepository.findAllSummaries(), version);
+            snapshot.set(next);
+            log.info("Rebuilt blog post catalog: {} posts, {} tags", next.posts().size(), next.postsByTag().size());
+        } catch (RuntimeException e) {
+            // serving from the database is slower but never stale
+            snapshot.set(null);
+            log.warn("Failed to rebuild blog post catalog, falling back to the database", e);
+        }
+    }
+    
+    private static Page<BlogPostSummary> page(List<BlogPostSummary> posts, Pageable pageable) {
+        // the snapshot keeps the fixed publishedAt DESC order of the repository queries
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(posts, pageable, posts.size());
+        }
+        int from = (int) Math.min(pageable.getOffset(), posts.size());
+        int to = Math.min(from + pageable.getPageSize(), posts.size());
+        return new PageImpl<>(posts.subList(from, to), pageable, posts.size());
+    }
+    
+    /**
+     * Posts sorted by publishedAt DESC, id DESC, plus one posting list per tag in the same order.
+     * The posting lists share the summary instances of {@code posts}.
+     */
+    private record Snapshot(
+        List<BlogPostSummary> posts,
+        Map<String, List<BlogPostSummary>> postsByTag,
+        ContentVersion version
+    ) {
+        
+        static Snapshot of(List<BlogPostSummary> summaries, ContentVersion version) {
+            List<BlogPostSummary> posts = new ArrayList<>(summaries.size());
+            Map<String, List<BlogPostSummary>> postsByTag = new HashMap<>();
+            for (BlogPostSummary summary : summaries) {
+                BlogPostSummary frozen = freeze(summary);
+                posts.add(frozen);
+                frozen.getTags().forEach(tag -> postsByTag.computeIfAbsent(tag, t -> new ArrayList<>()).add(frozen));
+            }
+            
+            Map<String, List<BlogPostSummary>> immutablePostsByTag = new HashMap<>(postsByTag.size());
+            postsByTag.forEach((tag, tagPosts) -> immutablePostsByTag.put(tag, List.copyOf(tagPosts)));
+            return new Snapshot(List.copyOf(posts), Map.copyOf(immutablePostsByTag), version);
+        }
+        
+        private static BlogPostSummary freeze(BlogPostSummary summary) {
+            return BlogPostSummary.builder()
+                .id(summary.getId())
+                .slug(summary.getSlug())
+                .title(summary.getTitle())
+                .description(summary.getDescription())
+                .author(summary.getAuthor())
+                .publishedAt(summary.getPublishedAt())
+                .thumbnailUrl(summary.getThumbnailUrl())
+                .type(summary.getType())
+                .externalUrl(summary.getExternalUrl())
+                .tags(summary.getTags() != null ? Set.copyOf(summary.getTags()) : Set.of())
+                .build();
+        }
+    }
+}
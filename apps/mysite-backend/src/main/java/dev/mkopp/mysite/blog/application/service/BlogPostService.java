@@ -1,24 +1,37 @@
 package dev.mkopp.mysite.blog.application.service;
 
+import dev.mkopp.mysite.blog.api.BlogPostApi;
+import dev.mkopp.mysite.blog.api.dto.BlogPostContentDto;
+import dev.mkopp.mysite.blog.application.dto.ContentVersion;
 import dev.mkopp.mysite.blog.application.mapper.AuthorMapper;
 import dev.mkopp.mysite.blog.application.mapper.BlogPostEventMapper;
 import dev.mkopp.mysite.blog.api.event.BlogPostPublishedEvent;
 import dev.mkopp.mysite.blog.application.port.in.*;
 import dev.mkopp.mysite.blog.application.port.out.BlogPostRepository;
-import dev.mkopp.mysite.blog.application.port.out.TagRepository;
 import dev.mkopp.mysite.blog.domain.model.Author;
 import dev.mkopp.mysite.blog.domain.model.BlogPost;
+import dev.mkopp.mysite.blog.domain.model.BlogPostSearchHit;
+import dev.mkopp.mysite.blog.domain.model.BlogPostSummary;
 import dev.mkopp.mysite.shared.api.exception.ResourceNotFoundException;
 import dev.mkopp.mysite.user.api.UserApi;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 
@@ -26,14 +39,17 @@ import java.util.UUID;
 @RequiredArgsConstructor
 @Slf4j
 @Transactional
-class BlogPostService implements CreateBlogPostUseCase, GetBlogPostUseCase, UpdateBlogPostUseCase, DeleteBlogPostUseCase {
+class BlogPostService implements CreateBlogPostUseCase, GetBlogPostUseCase, UpdateBlogPostUseCase, DeleteBlogPostUseCase, SearchBlogPostsUseCase, BlogPostApi {
     
     private final BlogPostRepository blogPostRepository;
-    private final TagRepository tagRepository;
     private final ApplicationEventPublisher eventPublisher;
     private final UserApi userApi;
     private final BlogPostEventMapper eventMapper;
     private final AuthorMapper authorMapper;
+    private final BlogPostCatalog catalog;
+    private final CacheManager cacheManager;
+    
+    static final String POSTS_BY_SLUG_CACHE = "blogPostsBySlug";
     
     @Override
     public BlogPost execute(BlogPost blogPost, Set<String> tags, UUID authorId) {
@@ -51,7 +67,8 @@ class BlogPostService implements CreateBlogPostUseCase, GetBlogPostUseCase, Upda
             .thumbnailUrl(blogPost.getThumbnailUrl())
             .type(blogPost.getType())
             .externalUrl(blogPost.getExternalUrl())
-            .tags(tagRepository.findOrCreateTags(tags))
+            // tags are resolved (and created if missing) once, when the post is persisted
+            .tags(tags != null ? new HashSet<>(tags) : new HashSet<>())
             .build();
         
         BlogPost savedPost = blogPostRepository.save(blogPost);
@@ -68,11 +85,33 @@ class BlogPostService implements CreateBlogPostUseCase, GetBlogPostUseCase, Upda
         return blogPostRepository.findAll(pageable);
     }
     
+    /**
+     * Serves posts from the per-instance slug cache. Evictions only reach the instance that committed
+     * the change, so every hit is checked against the cheap (id, updated_at) version and reloaded when
+     * another instance changed or deleted the post.
+     */
     @Override
     @Transactional(readOnly = true)
     public BlogPost findBySlug(String slug) {
-        return blogPostRepository.findBySlug(slug)
+        Cache cache = cacheManager.getCache(POSTS_BY_SLUG_CACHE);
+        BlogPost cached = cache != null ? cache.get(slug, BlogPost.class) : null;
+        if (cached != null) {
+            if (blogPostRepository.findVersionBySlug(slug).filter(version -> isVersionOf(version, cached)).isPresent()) {
+                return cached;
+            }
+            cache.evict(slug);
+        }
+        
+        BlogPost post = blogPostRepository.findBySlug(slug)
             .orElseThrow(() -> new ResourceNotFoundException("BlogPost", "slug", slug));
+        if (cache != null) {
+            cache.put(slug, post);
+        }
+        return post;
+    }
+    
+    private static boolean isVersionOf(ContentVersion version, BlogPost post) {
+        return version.key().equals(String.valueOf(post.getId())) && Objects.equals(version.lastModified(), post.getUpdatedAt());
     }
     
     @Override
@@ -88,6 +127,51 @@ class BlogPostService implements CreateBlogPostUseCase, GetBlogPostUseCase, Upda
         return blogPostRepository.findByTagName(tagName, pageable);
     }
     
+    @Override
+    @Transactional(readOnly = true)
+    public Window<BlogPost> scrollAll(ScrollPosition position, int limit) {
+        return blogPostRepository.scrollAll(position, limit);
+    }
+    
+    // Catalog reads use SUPPORTS so that a snapshot hit does not even borrow a connection;
+    // a read-only transaction would acquire one up front.
+    
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Page<BlogPostSummary> findAllSummaries(Pageable pageable) {
+        return catalog.findAll(pageable)
+            .orElseGet(() -> blogPostRepository.findAllSummaries(pageable));
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Page<BlogPostSummary> findSummariesByTag(String tagName, Pageable pageable) {
+        return catalog.findByTag(tagName, pageable)
+            .orElseGet(() -> blogPostRepository.findSummariesByTagName(tagName, pageable));
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public Page<BlogPostSearchHit> search(String query, Pageable pageable) {
+        if (query == null || query.isBlank()) {
+            return Page.empty(pageable);
+        }
+        return blogPostRepository.search(query.trim(), pageable);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<ContentVersion> findVersionBySlug(String slug) {
+        return blogPostRepository.findVersionBySlug(slug);
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public ContentVersion getCatalogVersion() {
+        return catalog.getVersion()
+            .orElseGet(blogPostRepository::findCatalogVersion);
+    }
+    
     @Override
     public BlogPost execute(UUID id, BlogPost updatedPost, Set<String> tags) {
         BlogPost existingPost = findById(id);
@@ -99,19 +183,42 @@ class BlogPostService implements CreateBlogPostUseCase, GetBlogPostUseCase, Upda
         );
         
         if (tags != null) {
-            Set<String> processedTags = tagRepository.findOrCreateTags(tags);
             existingPost.getTags().clear();
-            processedTags.forEach(existingPost::addTag);
+            tags.forEach(existingPost::addTag);
         }
         
-        return blogPostRepository.save(existingPost);
+        BlogPost savedPost = blogPostRepository.save(existingPost);
+        
+        eventPublisher.publishEvent(eventMapper.toUpdatedEvent(savedPost));
+        
+        return savedPost;
     }
     
     @Override
     public void execute(UUID id) {
-        if (!blogPostRepository.findById(id).isPresent()) {
-            throw new ResourceNotFoundException("BlogPost", "id", id);
-        }
+        BlogPost existingPost = findById(id);
         blogPostRepository.deleteById(id);
+        
+        eventPublisher.publishEvent(eventMapper.toDeletedEvent(existingPost));
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<BlogPostContentDto> getPostContent(UUID blogPostId) {
+        return blogPostRepository.findById(blogPostId)
+            .map(post -> new BlogPostContentDto(
+                post.getId(),
+                post.getSlug(),
+                post.getTitle(),
+                post.getDescription(),
+                post.getContent(),
+                Set.copyOf(post.getTags()),
+                post.getPublishedAt()));
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public List<UUID> getAllPostIds() {
+        return blogPostRepository.findAllIds();
     }
 }
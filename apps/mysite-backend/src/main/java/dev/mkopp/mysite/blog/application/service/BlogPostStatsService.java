@@ -0,0 +1,55 @@
+package dev.mkopp.mysite.blog.application.service;
+
+import dev.mkopp.mysite.blog.application.dto.BlogPostStats;
+import dev.mkopp.mysite.blog.application.port.out.BlogPostRepository;
+import dev.mkopp.mysite.blog.application.port.out.CommentRepository;
+import dev.mkopp.mysite.blog.application.port.out.LikeRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Stats of a whole page of post cards at once: one grouped query per figure instead of
+ * one request and query per card. IDs of unknown posts are dropped up front, so anonymous
+ * callers cannot make the like counters hold entries for arbitrary IDs.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class BlogPostStatsService {
+    
+    private final BlogPostRepository blogPostRepository;
+    private final LikeCounters likeCounters;
+    private final LikeRepository likeRepository;
+    private final CommentRepository commentRepository;
+    
+    public List<BlogPostStats> getStats(Collection<UUID> blogPostIds, UUID viewerId) {
+        Set<UUID> ids = new LinkedHashSet<>(blogPostIds);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        ids.retainAll(blogPostRepository.findExistingIds(ids));
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        
+        Map<UUID, Long> likeCounts = likeCounters.getAll(ids);
+        Set<UUID> likedByViewer = viewerId != null ? likeRepository.findLikedBlogPostIds(viewerId, ids) : Set.of();
+        Map<UUID, Long> commentCounts = commentRepository.countByBlogPostIds(ids);
+        
+        return ids.stream()
+            .map(id -> new BlogPostStats(
+                id,
+                likeCounts.getOrDefault(id, 0L),
+                likedByViewer.contains(id),
+                commentCounts.getOrDefault(id, 0L)))
+            .toList();
+    }
+}
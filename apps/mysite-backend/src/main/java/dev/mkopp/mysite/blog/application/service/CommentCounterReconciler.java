@@ -0,0 +1,31 @@
+package dev.mkopp.mysite.blog.application.service;
+
+import dev.mkopp.mysite.blog.application.port.out.CommentRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Repairs drift of the denormalized reply and like counters on comments, e.g. after
+ * cascaded deletes or changes made outside the application.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+class CommentCounterReconciler {
+    
+    private final CommentRepository commentRepository;
+    
+    @Scheduled(cron = "${application.blog.comments.counter-reconciliation-cron:0 30 3 * * *}")
+    @Transactional
+    void reconcile() {
+        int repaired = commentRepository.reconcileCounters();
+        if (repaired > 0) {
+            log.warn("Reconciled counters of {} comments that had drifted", repaired);
+        } else {
+            log.debug("Comment counters are consistent");
+        }
+    }
+}
@@ -1,7 +1,7 @@
 package dev.mkopp.mysite.blog.application.service;
 
 import dev.mkopp.mysite.blog.application.port.out.CommentLikeRepository;
-import dev.mkopp.mysite.blog.domain.model.CommentLike;
+import dev.mkopp.mysite.blog.application.dto.LikeState;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -17,22 +17,10 @@ public class CommentLikeService {
     
     private final CommentLikeRepository commentLikeRepository;
     
-    public void toggleCommentLike(UUID commentId, UUID userId) {
-        commentLikeRepository.findByCommentIdAndUserId(commentId, userId)
-            .ifPresentOrElse(
-                like -> {
-                    log.debug("Deleting comment like with ID: {} for comment: {} and user: {}", like.getId(), commentId, userId);
-                    commentLikeRepository.delete(like);
-                },
-                () -> {
-                    log.debug("Creating comment like for comment: {} and user: {}", commentId, userId);
-                    CommentLike newLike = CommentLike.builder()
-                        .commentId(commentId)
-                        .userId(userId)
-                        .build();
-                    commentLikeRepository.save(newLike);
-                }
-            );
+    public LikeState toggleCommentLike(UUID commentId, UUID userId) {
+        LikeState state = commentLikeRepository.toggle(commentId, userId);
+        log.debug("Toggled like for comment: {} and user: {} -> liked: {}, count: {}", commentId, userId, state.liked(), state.count());
+        return state;
     }
     
     @Transactional(readOnly = true)
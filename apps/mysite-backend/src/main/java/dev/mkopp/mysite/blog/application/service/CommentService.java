@@ -1,9 +1,11 @@
 package dev.mkopp.mysite.blog.application.service;
 
+import dev.mkopp.mysite.blog.application.dto.ContentVersion;
 import dev.mkopp.mysite.blog.application.mapper.CommentEventMapper;
 import dev.mkopp.mysite.blog.application.port.out.CommentLikeRepository;
 import dev.mkopp.mysite.blog.application.port.out.CommentRepository;
 import dev.mkopp.mysite.blog.domain.model.Comment;
+import dev.mkopp.mysite.blog.infrastructure.adapter.in.rest.dto.CommentThreadItem;
 import dev.mkopp.mysite.blog.infrastructure.adapter.in.rest.dto.CommentTreeItem;
 import dev.mkopp.mysite.shared.api.exception.ResourceNotFoundException;
 import dev.mkopp.mysite.shared.api.exception.UnauthorizedException;
@@ -11,9 +13,17 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
@@ -26,20 +36,51 @@ public class CommentService {
     private final ApplicationEventPublisher eventPublisher;
     private final CommentEventMapper eventMapper;
     
+    // viewerId is null for anonymous requests; likedByViewer is then false throughout
+    
+    @Transactional(readOnly = true)
+    public Page<CommentTreeItem> getTopLevelComments(UUID blogPostId, Pageable pageable, UUID viewerId) {
+        Page<Comment> comments = commentRepository.findTopLevelByBlogPostId(blogPostId, pageable);
+        Set<UUID> liked = findLikedByViewer(comments.getContent(), viewerId);
+        return comments.map(comment -> toCommentTreeItem(comment, liked.contains(comment.getId())));
+    }
+    
+    @Transactional(readOnly = true)
+    public Window<CommentTreeItem> scrollTopLevelComments(UUID blogPostId, ScrollPosition position, int limit, UUID viewerId) {
+        Window<Comment> comments = commentRepository.scrollTopLevelByBlogPostId(blogPostId, position, limit);
+        Set<UUID> liked = findLikedByViewer(comments.getContent(), viewerId);
+        return comments.map(comment -> toCommentTreeItem(comment, liked.contains(comment.getId())));
+    }
+    
     @Transactional(readOnly = true)
-    public Page<CommentTreeItem> getTopLevelComments(UUID blogPostId, Pageable pageable) {
-        return commentRepository.findTopLevelByBlogPostId(blogPostId, pageable)
-            .map(comment -> toCommentTreeItem(comment, 
-                commentRepository.countByParentCommentId(comment.getId()),
-                commentLikeRepository.countByCommentId(comment.getId())));
+    public Page<CommentTreeItem> getReplies(UUID parentCommentId, Pageable pageable, UUID viewerId) {
+        Page<Comment> replies = commentRepository.findRepliesByParentCommentId(parentCommentId, pageable);
+        Set<UUID> liked = findLikedByViewer(replies.getContent(), viewerId);
+        return replies.map(reply -> toCommentTreeItem(reply, liked.contains(reply.getId())));
     }
     
+    /**
+     * Whole discussion of a blog post as a nested tree, loaded with one query.
+     */
     @Transactional(readOnly = true)
-    public Page<CommentTreeItem> getReplies(UUID parentCommentId, Pageable pageable) {
-        return commentRepository.findRepliesByParentCommentId(parentCommentId, pageable)
-            .map(comment -> toCommentTreeItem(comment, 
-                commentRepository.countByParentCommentId(comment.getId()),
-                commentLikeRepository.countByCommentId(comment.getId())));
+    public List<CommentThreadItem> getThread(UUID blogPostId, int maxDepth, int maxNodes, UUID viewerId) {
+        List<Comment> comments = commentRepository.findThreadByBlogPostId(blogPostId, maxDepth, maxNodes);
+        Set<UUID> liked = findLikedByViewer(comments, viewerId);
+        
+        Map<UUID, Comment> commentsById = new HashMap<>();
+        List<Comment> topLevel = new ArrayList<>();
+        for (Comment comment : comments) {
+            commentsById.put(comment.getId(), comment);
+            if (comment.getParentCommentId() == null) {
+                topLevel.add(comment);
+            } else {
+                Comment parent = commentsById.get(comment.getParentCommentId());
+                if (parent != null) {
+                    parent.addReply(comment);
+                }
+            }
+        }
+        return topLevel.stream().map(comment -> toCommentThreadItem(comment, liked)).toList();
     }
     
     @Transactional(readOnly = true)
@@ -52,6 +93,20 @@ public class CommentService {
         return commentRepository.countByParentCommentId(parentCommentId);
     }
     
+    /**
+     * Version of all comments and comment likes of a blog post; changes whenever any page of the thread would.
+     */
+    @Transactional(readOnly = true)
+    public ContentVersion getThreadVersion(UUID blogPostId) {
+        return commentRepository.findThreadVersion(blogPostId);
+    }
+    
+    @Transactional(readOnly = true)
+    public Optional<ContentVersion> getThreadVersionForComment(UUID commentId) {
+        return commentRepository.findBlogPostIdById(commentId)
+            .map(commentRepository::findThreadVersion);
+    }
+    
     public Comment createComment(UUID blogPostId, UUID userId, String content, UUID parentCommentId) {
         Comment comment = Comment.builder()
             .blogPostId(blogPostId)
@@ -61,6 +116,9 @@ public class CommentService {
             .build();
         
         Comment savedComment = commentRepository.save(comment);
+        if (parentCommentId != null) {
+            commentRepository.adjustReplyCount(parentCommentId, 1);
+        }
         
         eventPublisher.publishEvent(eventMapper.toAddedEvent(savedComment));
         
@@ -88,17 +146,46 @@ public class CommentService {
         }
         
         commentRepository.deleteById(commentId);
+        // replies of the deleted comment go with it (ON DELETE CASCADE), only the parent needs adjusting
+        if (comment.getParentCommentId() != null) {
+            commentRepository.adjustReplyCount(comment.getParentCommentId(), -1);
+        }
+    }
+    
+    /**
+     * Like status of the viewer for a whole page of comments with a single query.
+     */
+    private Set<UUID> findLikedByViewer(List<Comment> comments, UUID viewerId) {
+        if (viewerId == null || comments.isEmpty()) {
+            return Set.of();
+        }
+        return commentLikeRepository.findLikedCommentIds(viewerId, comments.stream().map(Comment::getId).toList());
+    }
+    
+    private CommentThreadItem toCommentThreadItem(Comment comment, Set<UUID> likedByViewer) {
+        return new CommentThreadItem(
+            comment.getId(),
+            comment.getUserId(),
+            comment.getContent(),
+            comment.getCreatedAt(),
+            comment.getUpdatedAt(),
+            comment.getReplyCount(),
+            comment.getLikeCount(),
+            likedByViewer.contains(comment.getId()),
+            comment.getReplies().stream().map(reply -> toCommentThreadItem(reply, likedByViewer)).toList()
+        );
     }
     
-    private CommentTreeItem toCommentTreeItem(Comment comment, long replyCount, long likeCount) {
+    private CommentTreeItem toCommentTreeItem(Comment comment, boolean likedByViewer) {
         return new CommentTreeItem(
             comment.getId(),
             comment.getUserId(),
             comment.getContent(),
             comment.getCreatedAt(),
             comment.getUpdatedAt(),
-            replyCount,
-            likeCount
+            comment.getReplyCount(),
+            comment.getLikeCount(),
+            likedByViewer
         );
     }
 }
@@ -0,0 +1,229 @@
+package dev.mkopp.mysite.blog.application.service;
+
+import dev.mkopp.mysite.blog.api.event.BlogPostDeletedEvent;
+import dev.mkopp.mysite.blog.application.port.out.LikeCountRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * In-memory like totals per post with write-behind to {@code blog.like_counts}.
+ * <p>
+ * Toggles only add to a striped {@link LongAdder}, so a burst of likes on one post does not
+ * contend on a single row or counter. A scheduled flush writes the net deltas in one batch and
+ * moves them into the persisted base. Exactly the flushed amount is subtracted from the pending
+ * adder, so increments racing with a flush are carried over to the next one instead of being lost.
+ * After every flush the bases of all counters are reloaded in one query, so toggles flushed by other
+ * instances show up within a flush interval.
+ * <p>
+ * Deltas not yet flushed are lost on a crash; the totals can therefore be recomputed from
+ * {@code blog.blog_likes} on startup, before the web server accepts requests. That is only correct
+ * while no other instance holds unflushed deltas: they are already part of the like rows and would
+ * be added a second time by their flush. Deployments with several replicas turn it off with
+ * {@code application.blog.likes.reconcile-on-startup}.
+ * <p>
+ * Like counts are readable anonymously for any ID, so counters are only created for posts that
+ * exist. Unknown IDs are answered with zero straight from the repository lookup, and counters of
+ * deleted posts are dropped.
+ */
+@Component
+@Slf4j
+class LikeCounters implements SmartInitializingSingleton {
+    
+    private final LikeCountRepository likeCountRepository;
+    private final boolean reconcileOnStartup;
+    private final ConcurrentMap<UUID, Counter> counters = new ConcurrentHashMap<>();
+    
+    LikeCounters(LikeCountRepository likeCountRepository,
+                 @Value("${application.blog.likes.reconcile-on-startup:true}") boolean reconcileOnStartup) {
+        this.likeCountRepository = likeCountRepository;
+        this.reconcileOnStartup = reconcileOnStartup;
+    }
+    
+    long get(UUID blogPostId) {
+        Counter counter = counter(blogPostId);
+        return counter != null ? counter.value() : 0;
+    }
+    
+    /**
+     * Totals of the posts among the IDs that exist; persisted bases that are not in memory yet are
+     * loaded with a single query. IDs of unknown posts are missing from the result.
+     */
+    Map<UUID, Long> getAll(Collection<UUID> blogPostIds) {
+        List<UUID> missing = blogPostIds.stream()
+            .filter(id -> {
+                Counter counter = counters.get(id);
+                return counter == null || !counter.loaded;
+            })
+            .distinct()
+            .toList();
+        if (!missing.isEmpty()) {
+            likeCountRepository.findCountsByBlogPostIds(missing)
+                .forEach((id, count) -> load(counters.computeIfAbsent(id, key -> new Counter()), () -> count));
+        }
+        
+        Map<UUID, Long> totals = new HashMap<>();
+        blogPostIds.forEach(id -> {
+            Counter counter = counters.get(id);
+            if (counter != null && counter.loaded) {
+                totals.put(id, counter.value());
+            }
+        });
+        return totals;
+    }
+    
+    void add(UUID blogPostId, long delta) {
+        if (delta == 0) {
+            return;
+        }
+        Counter counter = counter(blogPostId);
+        if (counter != null) {
+            counter.pending.add(delta);
+        }
+    }
+    
+    int size() {
+        return counters.size();
+    }
+    
+    @Scheduled(fixedDelayString = "${application.blog.likes.flush-interval:PT5S}")
+    void flush() {
+        List<Flush> flushes = new ArrayList<>();
+        counters.forEach((blogPostId, counter) -> {
+            long delta = counter.pending.sum();
+            // an unloaded counter would re-read a base that may already include this flush
+            if (delta != 0 && counter.loaded) {
+                flushes.add(new Flush(blogPostId, counter, delta));
+            }
+        });
+        
+        if (!flushes.isEmpty()) {
+            Map<UUID, Long> deltas = new HashMap<>();
+            flushes.forEach(flush -> deltas.put(flush.blogPostId(), flush.delta()));
+            try {
+                likeCountRepository.addAll(deltas);
+                // the captured counters, a counter removed meanwhile must not abort the loop
+                flushes.forEach(flush -> {
+                    // base first: a concurrent reader may briefly see the delta twice, but never miss it
+                    flush.counter().base.addAndGet(flush.delta());
+                    flush.counter().pending.add(-flush.delta());
+                });
+                log.debug("Flushed like count deltas for {} posts", deltas.size());
+            } catch (RuntimeException e) {
+                // nothing was moved out of pending, the next flush retries the same deltas
+                log.warn("Failed to flush {} like count deltas, retrying with the next flush", deltas.size(), e);
+            }
+        }
+        reloadBases();
+    }
+    
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (reconcileOnStartup) {
+            reconcile();
+        }
+    }
+    
+    void reconcile() {
+        int corrected = likeCountRepository.reconcile();
+        if (corrected > 0) {
+            log.warn("Reconciled {} like counts with the like rows", corrected);
+        }
+    }
+    
+    @TransactionalEventListener
+    void on(BlogPostDeletedEvent event) {
+        // like_counts rows go with the post, pending deltas would be dropped by the flush anyway
+        counters.remove(event.id());
+    }
+    
+    /**
+     * The loaded counter of the post, or null if the post does not exist.
+     */
+    private Counter counter(UUID blogPostId) {
+        Counter counter = counters.get(blogPostId);
+        if (counter != null && counter.loaded) {
+            return counter;
+        }
+        OptionalLong persisted = likeCountRepository.findCountByBlogPostId(blogPostId);
+        if (persisted.isEmpty()) {
+            return null;
+        }
+        counter = counters.computeIfAbsent(blogPostId, id -> new Counter());
+        load(counter, persisted::getAsLong);
+        return counter;
+    }
+    
+    /**
+     * Replaces the bases with the persisted totals, which include the flushes of every instance.
+     * Only this instance flushes its own pending deltas, so none of them are part of the reloaded base.
+     */
+    private void reloadBases() {
+        List<UUID> loaded = counters.entrySet().stream()
+            .filter(entry -> entry.getValue().loaded)
+            .map(Map.Entry::getKey)
+            .toList();
+        if (loaded.isEmpty()) {
+            return;
+        }
+        Map<UUID, Long> persisted;
+        try {
+            persisted = likeCountRepository.findCountsByBlogPostIds(loaded);
+        } catch (RuntimeException e) {
+            log.warn("Failed to reload {} like counts, keeping the current ones", loaded.size(), e);
+            return;
+        }
+        loaded.forEach(blogPostId -> {
+            Long count = persisted.get(blogPostId);
+            if (count == null) {
+                // the post is gone
+                counters.remove(blogPostId);
+                return;
+            }
+            Counter counter = counters.get(blogPostId);
+            if (counter != null) {
+                counter.base.set(count);
+            }
+        });
+    }
+    
+    private static void load(Counter counter, LongSupplier persistedCount) {
+        if (!counter.loaded) {
+            synchronized (counter) {
+                if (!counter.loaded) {
+                    counter.base.set(persistedCount.getAsLong());
+                    counter.loaded = true;
+                }
+            }
+        }
+    }
+    
+    private record Flush(UUID blogPostId, Counter counter, long delta) {
+    }
+    
+    private static final class Counter {
+        private final AtomicLong base = new AtomicLong();
+        private final LongAdder pending = new LongAdder();
+        private volatile boolean loaded;
+        
+        long value() {
+            return base.get() + pending.sum();
+        }
+    }
+}
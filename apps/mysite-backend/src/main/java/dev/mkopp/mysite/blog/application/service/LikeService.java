@@ -1,11 +1,15 @@
 package dev.mkopp.mysite.blog.application.service;
 
 import dev.mkopp.mysite.blog.application.port.out.LikeRepository;
-import dev.mkopp.mysite.blog.domain.model.Like;
+import dev.mkopp.mysite.blog.application.dto.LikeState;
+import dev.mkopp.mysite.blog.application.dto.LikeToggle;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.UUID;
 
@@ -16,28 +20,28 @@ import java.util.UUID;
 public class LikeService {
     
     private final LikeRepository likeRepository;
+    private final LikeCounters likeCounters;
     
-    public void toggleLike(UUID blogPostId, UUID userId) {
-        likeRepository.findByBlogPostIdAndUserId(blogPostId, userId)
-            .ifPresentOrElse(
-                like -> {
-                    log.debug("Deleting like with ID: {} for blogPost: {} and user: {}", like.getId(), blogPostId, userId);
-                    likeRepository.delete(like);
-                },
-                () -> {
-                    log.debug("Creating like for blogPost: {} and user: {}", blogPostId, userId);
-                    Like newLike = Like.builder()
-                        .blogPostId(blogPostId)
-                        .userId(userId)
-                        .build();
-                    likeRepository.save(newLike);
-                }
-            );
+    public LikeState toggleLike(UUID blogPostId, UUID userId) {
+        LikeToggle toggle = likeRepository.toggle(blogPostId, userId);
+        long count = likeCounters.get(blogPostId) + toggle.delta();
+        
+        // the total only moves once the like row is committed, a rolled back toggle must not count
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                likeCounters.add(blogPostId, toggle.delta());
+            }
+        });
+        
+        log.debug("Toggled like for blogPost: {} and user: {} -> liked: {}, count: {}", blogPostId, userId, toggle.liked(), count);
+        return new LikeState(toggle.liked(), count);
     }
     
-    @Transactional(readOnly = true)
+    // served from memory, SUPPORTS avoids borrowing a connection for it
+    @Transactional(propagation = Propagation.SUPPORTS)
     public long getLikeCount(UUID blogPostId) {
-        long count = likeRepository.countByBlogPostId(blogPostId);
+        long count = likeCounters.get(blogPostId);
         log.debug("Like count for blogPost {}: {}", blogPostId, count);
         return count;
     }
@@ -31,6 +31,7 @@ public class BlogPost {
     private String thumbnailUrl;
     private BlogPostType type;
     private String externalUrl;
+    private Instant updatedAt;  // Technical: identifies the version of the post that was read
     
     @Builder.Default
     private Set<String> tags = new HashSet<>();
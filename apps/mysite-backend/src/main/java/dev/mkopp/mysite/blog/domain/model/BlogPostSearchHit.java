@@ -0,0 +1,22 @@
+package dev.mkopp.mysite.blog.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.jmolecules.ddd.annotation.ValueObject;
+
+/**
+ * A full-text search match: the post summary, its relevance and a highlighted excerpt of the content.
+ */
+@ValueObject
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BlogPostSearchHit {
+    
+    private BlogPostSummary summary;
+    private double rank;
+    private String snippet;
+}
@@ -0,0 +1,37 @@
+package dev.mkopp.mysite.blog.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.jmolecules.ddd.annotation.ValueObject;
+
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Read model of a blog post for list views. Carries everything a post card needs
+ * but never the (potentially large) markdown content.
+ */
+@ValueObject
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BlogPostSummary {
+    
+    private UUID id;
+    private String slug;
+    private String title;
+    private String description;
+    private Author author;
+    private Instant publishedAt;
+    private String thumbnailUrl;
+    private BlogPostType type;
+    private String externalUrl;
+    
+    @Builder.Default
+    private Set<String> tags = new HashSet<>();
+}
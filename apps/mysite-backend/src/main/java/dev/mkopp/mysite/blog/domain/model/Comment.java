@@ -28,6 +28,8 @@ public class Comment {
     private String content;
     private Instant createdAt;
     private Instant updatedAt;
+    private long replyCount;
+    private long likeCount;
     
     @Builder.Default
     private List<Comment> replies = new ArrayList<>();
@@ -1,10 +1,17 @@
 package dev.mkopp.mysite.blog.infrastructure.adapter.in.rest;
 
+import dev.mkopp.mysite.blog.application.dto.ContentVersion;
 import dev.mkopp.mysite.blog.application.port.in.*;
 import dev.mkopp.mysite.blog.domain.model.BlogPost;
+import dev.mkopp.mysite.blog.domain.model.BlogPostSummary;
 import dev.mkopp.mysite.blog.infrastructure.adapter.in.rest.dto.BlogPostRequest;
 import dev.mkopp.mysite.blog.infrastructure.adapter.in.rest.dto.BlogPostResponse;
+import dev.mkopp.mysite.blog.infrastructure.adapter.in.rest.dto.BlogPostSearchResultResponse;
+import dev.mkopp.mysite.blog.infrastructure.adapter.in.rest.dto.BlogPostSummaryResponse;
 import dev.mkopp.mysite.blog.infrastructure.adapter.in.rest.mapper.BlogPostRestMapper;
+import dev.mkopp.mysite.shared.api.rest.CursorPage;
+import dev.mkopp.mysite.shared.api.rest.ETags;
+import dev.mkopp.mysite.shared.api.rest.ScrollCursors;
 import dev.mkopp.mysite.user.api.UserApi;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -14,14 +21,17 @@ import org.springdoc.core.annotations.ParameterObject;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Window;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.MediaType;
 
+import java.util.Arrays;
 import java.util.UUID;
 
 @RestController
@@ -34,32 +44,110 @@ public class BlogPostController {
     private final CreateBlogPostUseCase createBlogPostUseCase;
     private final UpdateBlogPostUseCase updateBlogPostUseCase;
     private final DeleteBlogPostUseCase deleteBlogPostUseCase;
+    private final SearchBlogPostsUseCase searchBlogPostsUseCase;
     private final UserApi userApi;
     private final BlogPostRestMapper mapper;
 
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+
     @GetMapping
     @Operation(summary = "Get all blog posts")
     @ApiResponse(responseCode = "200", description = "Successfully retrieved blog posts")
     public ResponseEntity<Page<BlogPostResponse>> getAllPosts(
-            @PageableDefault(sort = "publishedAt", direction = Sort.Direction.ASC) @ParameterObject Pageable pageable) {
+            @PageableDefault(sort = "publishedAt", direction = Sort.Direction.ASC) @ParameterObject Pageable pageable,
+            WebRequest request) {
+        String etag = catalogETag("posts", pageable);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
         Page<BlogPost> posts = getBlogPostUseCase.findAll(pageable);
-        return ResponseEntity.ok(posts.map(mapper::toResponse));
+        return ETags.ok(etag, posts.map(mapper::toResponse));
+    }
+
+    @GetMapping("/cursor")
+    @Operation(summary = "Get blog posts using cursor (keyset) pagination, newest first")
+    @ApiResponse(responseCode = "200", description = "Successfully retrieved blog posts")
+    @ApiResponse(responseCode = "400", description = "Invalid cursor")
+    public ResponseEntity<CursorPage<BlogPostResponse>> getAllPostsByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            WebRequest request) {
+        String etag = catalogETag("cursor", cursor, size);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        Window<BlogPost> posts = getBlogPostUseCase.scrollAll(ScrollCursors.decode(cursor), clampPageSize(size));
+        return ETags.ok(etag, CursorPage.of(posts, mapper::toResponse));
+    }
+
+    @GetMapping("/summaries")
+    @Operation(summary = "Get all blog post summaries (without content)")
+    @ApiResponse(responseCode = "200", description = "Successfully retrieved blog post summaries")
+    public ResponseEntity<Page<BlogPostSummaryResponse>> getAllPostSummaries(
+            @PageableDefault(sort = "publishedAt", direction = Sort.Direction.ASC) @ParameterObject Pageable pageable,
+            WebRequest request) {
+        String etag = catalogETag("summaries", pageable);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        Page<BlogPostSummary> summaries = getBlogPostUseCase.findAllSummaries(pageable);
+        return ETags.ok(etag, summaries.map(mapper::toSummaryResponse));
+    }
+
+    @GetMapping("/search")
+    @Operation(summary = "Full-text search over blog posts, ranked by relevance")
+    @ApiResponse(responseCode = "200", description = "Successfully searched blog posts")
+    public ResponseEntity<Page<BlogPostSearchResultResponse>> searchPosts(
+            @RequestParam String q,
+            @ParameterObject Pageable pageable,
+            WebRequest request) {
+        String etag = catalogETag("search", q, pageable.getPageNumber(), pageable.getPageSize());
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ETags.ok(etag, searchBlogPostsUseCase.search(q, pageable).map(mapper::toSearchResultResponse));
     }
 
     @GetMapping("/{slug}")
     @Operation(summary = "Get blog post by slug")
     @ApiResponse(responseCode = "200", description = "Successfully retrieved blog post")
+    @ApiResponse(responseCode = "304", description = "Blog post not modified")
     @ApiResponse(responseCode = "404", description = "Blog post not found")
-    public ResponseEntity<BlogPostResponse> getPostBySlug(@PathVariable String slug) {
+    public ResponseEntity<BlogPostResponse> getPostBySlug(@PathVariable String slug, WebRequest request) {
+        // Resolved from (id, updated_at) only, so a 304 never loads content or the author
+        String currentETag = getBlogPostUseCase.findVersionBySlug(slug)
+            .map(version -> ETags.strong(version.key(), version.lastModified()))
+            .orElse(null);
+        if (currentETag != null && request.checkNotModified(currentETag)) {
+            return null;
+        }
+        // The body may come from a cache, so its tag is derived from the post actually served
         BlogPost post = getBlogPostUseCase.findBySlug(slug);
-        return ResponseEntity.ok(mapper.toResponse(post));
+        return ETags.ok(ETags.strong(post.getId(), post.getUpdatedAt()), mapper.toResponse(post));
     }
 
     @GetMapping("/tag/{tagName}")
     @Operation(summary = "Get blog posts by tag")
-    public ResponseEntity<Page<BlogPostResponse>> getPostsByTag(@PathVariable String tagName, @ParameterObject Pageable pageable) {
+    public ResponseEntity<Page<BlogPostResponse>> getPostsByTag(@PathVariable String tagName, @ParameterObject Pageable pageable,
+            WebRequest request) {
+        String etag = catalogETag("tag", tagName, pageable);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
         Page<BlogPost> posts = getBlogPostUseCase.findByTag(tagName, pageable);
-        return ResponseEntity.ok(posts.map(mapper::toResponse));
+        return ETags.ok(etag, posts.map(mapper::toResponse));
+    }
+
+    @GetMapping("/tag/{tagName}/summaries")
+    @Operation(summary = "Get blog post summaries by tag (without content)")
+    public ResponseEntity<Page<BlogPostSummaryResponse>> getPostSummariesByTag(@PathVariable String tagName, @ParameterObject Pageable pageable,
+            WebRequest request) {
+        String etag = catalogETag("tag-summaries", tagName, pageable);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        Page<BlogPostSummary> summaries = getBlogPostUseCase.findSummariesByTag(tagName, pageable);
+        return ETags.ok(etag, summaries.map(mapper::toSummaryResponse));
     }
 
     @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
@@ -93,6 +181,19 @@ public class BlogPostController {
         return ResponseEntity.noContent().build();
     }
 
+    /**
+     * Any list view changes only if some post was added, removed or updated,
+     * which shows in the post count or the latest updated_at.
+     */
+    private String catalogETag(Object... requestParts) {
+        ContentVersion version = getBlogPostUseCase.getCatalogVersion();
+        return ETags.strong(version.key(), version.lastModified(), Arrays.toString(requestParts));
+    }
+
+    private static int clampPageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE));
+    }
+
     private UUID extractAndEnsureUser(Jwt jwt) {
         UUID userId = UUID.fromString(jwt.getSubject());
         String username = jwt.getClaimAsString("preferred_username");
@@ -0,0 +1,48 @@
+package dev.mkopp.mysite.blog.infrastructure.adapter.in.rest;
+
+import dev.mkopp.mysite.blog.application.service.BlogPostStatsService;
+import dev.mkopp.mysite.blog.infrastructure.adapter.in.rest.dto.BlogPostStatsRequest;
+import dev.mkopp.mysite.blog.infrastructure.adapter.in.rest.dto.BlogPostStatsResponse;
+import dev.mkopp.mysite.shared.api.exception.BusinessException;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequiredArgsConstructor
+@Tag(name = "Blog", description = "Blog post management API")
+class BlogPostStatsController {
+    
+    private final BlogPostStatsService blogPostStatsService;
+    
+    private static final int MAX_STATS_IDS = 100;
+    
+    // POST only because the ID list does not fit a query string; the endpoint does not modify anything
+    @PostMapping(value = "/v1/blog/stats", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Get like count, viewer like status and comment count for several posts at once, unknown IDs are left out")
+    public ResponseEntity<List<BlogPostStatsResponse>> getStats(
+            @RequestBody BlogPostStatsRequest request,
+            @Parameter(hidden = true) @AuthenticationPrincipal(errorOnInvalidType = false) Jwt jwt) {
+        List<UUID> ids = request.blogPostIds() != null ? request.blogPostIds() : List.of();
+        if (ids.size() > MAX_STATS_IDS) {
+            throw new BusinessException("At most " + MAX_STATS_IDS + " blog post IDs are allowed per request");
+        }
+        UUID viewerId = jwt != null ? UUID.fromString(jwt.getSubject()) : null;
+        
+        return ResponseEntity.ok(blogPostStatsService.getStats(ids, viewerId).stream()
+            .map(stats -> new BlogPostStatsResponse(
+                stats.blogPostId(), stats.likeCount(), stats.likedByViewer(), stats.commentCount()))
+            .toList());
+    }
+}
@@ -1,12 +1,19 @@
 package dev.mkopp.mysite.blog.infrastructure.adapter.in.rest;
 
 import dev.mkopp.mysite.blog.application.dto.CommentLikeResponse;
+import dev.mkopp.mysite.blog.application.dto.ContentVersion;
+import dev.mkopp.mysite.blog.application.dto.LikeState;
 import dev.mkopp.mysite.blog.application.service.CommentLikeService;
 import dev.mkopp.mysite.blog.application.service.CommentService;
 import dev.mkopp.mysite.blog.infrastructure.adapter.in.rest.dto.CommentRequest;
+import dev.mkopp.mysite.blog.infrastructure.adapter.in.rest.dto.CommentThreadItem;
 import dev.mkopp.mysite.blog.infrastructure.adapter.in.rest.dto.CommentTreeItem;
+import dev.mkopp.mysite.shared.api.rest.CursorPage;
+import dev.mkopp.mysite.shared.api.rest.ETags;
+import dev.mkopp.mysite.shared.api.rest.ScrollCursors;
 import dev.mkopp.mysite.user.application.port.in.FindOrCreateUserUseCase;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springdoc.core.annotations.ParameterObject;
@@ -18,7 +25,10 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -30,6 +40,10 @@ class CommentController {
     private final CommentLikeService commentLikeService;
     private final FindOrCreateUserUseCase findOrCreateUserUseCase;
     
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+    private static final int MAX_TREE_DEPTH = 10;
+    private static final int MAX_TREE_NODES = 500;
+    
     @GetMapping(value = "/v1/blog/{blogPostId}/comments/count", produces = MediaType.APPLICATION_JSON_VALUE)
     @Operation(summary = "Get comment count for blog post")
     public ResponseEntity<Long> getCommentCount(@PathVariable UUID blogPostId) {
@@ -40,16 +54,70 @@ class CommentController {
     @Operation(summary = "Get top-level comments for blog post")
     public ResponseEntity<Page<CommentTreeItem>> getTopLevelComments(
             @PathVariable UUID blogPostId,
-            @ParameterObject Pageable pageable) {
-        return ResponseEntity.ok(commentService.getTopLevelComments(blogPostId, pageable));
+            @ParameterObject Pageable pageable,
+            @Parameter(hidden = true) @AuthenticationPrincipal(errorOnInvalidType = false) Jwt jwt,
+            WebRequest request) {
+        UUID viewerId = viewerId(jwt);
+        String etag = threadETag(commentService.getThreadVersion(blogPostId), blogPostId, pageable, viewerId);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return threadResponse(etag, viewerId, commentService.getTopLevelComments(blogPostId, pageable, viewerId));
+    }
+    
+    @GetMapping(value = "/v1/blog/{blogPostId}/comments/cursor", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Get top-level comments for blog post using cursor (keyset) pagination, newest first")
+    public ResponseEntity<CursorPage<CommentTreeItem>> getTopLevelCommentsByCursor(
+            @PathVariable UUID blogPostId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @Parameter(hidden = true) @AuthenticationPrincipal(errorOnInvalidType = false) Jwt jwt,
+            WebRequest request) {
+        UUID viewerId = viewerId(jwt);
+        String etag = threadETag(commentService.getThreadVersion(blogPostId), blogPostId, cursor, size, viewerId);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        int limit = Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE));
+        return threadResponse(etag, viewerId, CursorPage.of(
+            commentService.scrollTopLevelComments(blogPostId, ScrollCursors.decode(cursor), limit, viewerId),
+            item -> item));
+    }
+    
+    @GetMapping(value = "/v1/blog/{blogPostId}/comments/tree", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Get the comment thread of a blog post as a nested tree, limited in depth and node count")
+    public ResponseEntity<List<CommentThreadItem>> getCommentTree(
+            @PathVariable UUID blogPostId,
+            @RequestParam(defaultValue = "5") int depth,
+            @RequestParam(defaultValue = "200") int limit,
+            @Parameter(hidden = true) @AuthenticationPrincipal(errorOnInvalidType = false) Jwt jwt,
+            WebRequest request) {
+        UUID viewerId = viewerId(jwt);
+        int maxDepth = Math.max(0, Math.min(depth, MAX_TREE_DEPTH));
+        int maxNodes = Math.max(1, Math.min(limit, MAX_TREE_NODES));
+        String etag = threadETag(commentService.getThreadVersion(blogPostId), blogPostId, maxDepth, maxNodes, viewerId);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return threadResponse(etag, viewerId, commentService.getThread(blogPostId, maxDepth, maxNodes, viewerId));
     }
     
     @GetMapping(value = "/v1/comments/{commentId}/replies", produces = MediaType.APPLICATION_JSON_VALUE)
     @Operation(summary = "Get replies for a comment")
     public ResponseEntity<Page<CommentTreeItem>> getReplies(
             @PathVariable UUID commentId,
-            @ParameterObject Pageable pageable) {
-        return ResponseEntity.ok(commentService.getReplies(commentId, pageable));
+            @ParameterObject Pageable pageable,
+            @Parameter(hidden = true) @AuthenticationPrincipal(errorOnInvalidType = false) Jwt jwt,
+            WebRequest request) {
+        UUID viewerId = viewerId(jwt);
+        String etag = commentService.getThreadVersionForComment(commentId)
+            .map(version -> threadETag(version, commentId, pageable, viewerId))
+            .orElse(null);
+        if (etag != null && request.checkNotModified(etag)) {
+            return null;
+        }
+        var replies = commentService.getReplies(commentId, pageable, viewerId);
+        return etag != null ? threadResponse(etag, viewerId, replies) : ResponseEntity.ok(replies);
     }
     
     @PostMapping(value = "/v1/blog/{blogPostId}/comments", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
@@ -61,16 +129,15 @@ class CommentController {
             @AuthenticationPrincipal Jwt jwt) {
         UUID userId = extractAndEnsureUser(jwt);
         var comment = commentService.createComment(blogPostId, userId, request.content(), request.parentCommentId());
-        long replyCount = commentService.getReplyCount(comment.getId());
-        long likeCount = commentLikeService.getCommentLikeCount(comment.getId());
         return ResponseEntity.ok(new CommentTreeItem(
             comment.getId(),
             comment.getUserId(),
             comment.getContent(),
             comment.getCreatedAt(),
             comment.getUpdatedAt(),
-            replyCount,
-            likeCount
+            comment.getReplyCount(),
+            comment.getLikeCount(),
+            false
         ));
     }
     
@@ -83,16 +150,15 @@ class CommentController {
             @AuthenticationPrincipal Jwt jwt) {
         UUID userId = extractAndEnsureUser(jwt);
         var comment = commentService.updateComment(commentId, userId, request.content());
-        long replyCount = commentService.getReplyCount(comment.getId());
-        long likeCount = commentLikeService.getCommentLikeCount(comment.getId());
         return ResponseEntity.ok(new CommentTreeItem(
             comment.getId(),
             comment.getUserId(),
             comment.getContent(),
             comment.getCreatedAt(),
             comment.getUpdatedAt(),
-            replyCount,
-            likeCount
+            comment.getReplyCount(),
+            comment.getLikeCount(),
+            commentLikeService.isCommentLikedByUser(commentId, userId)
         ));
     }
     
@@ -116,12 +182,9 @@ class CommentController {
             @PathVariable UUID commentId,
             @AuthenticationPrincipal Jwt jwt) {
         UUID userId = extractAndEnsureUser(jwt);
-        commentLikeService.toggleCommentLike(commentId, userId);
+        LikeState state = commentLikeService.toggleCommentLike(commentId, userId);
         
-        return ResponseEntity.ok(new CommentLikeResponse(
-            commentLikeService.getCommentLikeCount(commentId),
-            commentLikeService.isCommentLikedByUser(commentId, userId)
-        ));
+        return ResponseEntity.ok(new CommentLikeResponse(state.count(), state.liked()));
     }
     
     @GetMapping(value = "/v1/comments/{commentId}/like", produces = MediaType.APPLICATION_JSON_VALUE)
@@ -131,13 +194,29 @@ class CommentController {
             @AuthenticationPrincipal(errorOnInvalidType = false) Jwt jwt) {
         long count = commentLikeService.getCommentLikeCount(commentId);
         boolean isLiked = false;
+        UUID userId = null;
         
         if (jwt != null) {
-            UUID userId = UUID.fromString(jwt.getSubject());
+            userId = UUID.fromString(jwt.getSubject());
             isLiked = commentLikeService.isCommentLikedByUser(commentId, userId);
         }
         
-        return ResponseEntity.ok(new CommentLikeResponse(count, isLiked));
+        // Both values come from index-only lookups, so the tag is derived from the response itself;
+        // Spring answers a matching If-None-Match with 304 and no body
+        return ETags.okPrivate(ETags.strong(commentId, userId, count, isLiked), new CommentLikeResponse(count, isLiked));
+    }
+    
+    private static String threadETag(ContentVersion version, Object... requestParts) {
+        return ETags.strong(version.key(), version.lastModified(), Arrays.toString(requestParts));
+    }
+    
+    // Responses carrying likedByViewer differ per user and must not be stored by shared caches
+    private static <T> ResponseEntity<T> threadResponse(String etag, UUID viewerId, T body) {
+        return viewerId != null ? ETags.okPrivate(etag, body) : ETags.ok(etag, body);
+    }
+    
+    private static UUID viewerId(Jwt jwt) {
+        return jwt != null ? UUID.fromString(jwt.getSubject()) : null;
     }
     
     private UUID extractAndEnsureUser(Jwt jwt) {
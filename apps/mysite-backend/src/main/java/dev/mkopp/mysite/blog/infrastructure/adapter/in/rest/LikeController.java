@@ -1,7 +1,9 @@
 package dev.mkopp.mysite.blog.infrastructure.adapter.in.rest;
 
+import dev.mkopp.mysite.blog.application.dto.LikeState;
 import dev.mkopp.mysite.blog.application.service.LikeService;
 import dev.mkopp.mysite.blog.infrastructure.adapter.in.rest.dto.LikeResponse;
+import dev.mkopp.mysite.shared.api.rest.ETags;
 import dev.mkopp.mysite.user.application.port.in.FindOrCreateUserUseCase;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -33,12 +35,9 @@ class LikeController {
             @AuthenticationPrincipal Jwt jwt) {
 
         UUID userId = extractAndEnsureUser(jwt);
-        likeService.toggleLike(blogPostId, userId);
+        LikeState state = likeService.toggleLike(blogPostId, userId);
 
-        return ResponseEntity.ok(new LikeResponse(
-            likeService.getLikeCount(blogPostId),
-            likeService.isLikedByUser(blogPostId, userId)
-        ));
+        return ResponseEntity.ok(new LikeResponse(state.count(), state.liked()));
     }
     
     @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
@@ -48,11 +47,13 @@ class LikeController {
             @Parameter(hidden = true) @AuthenticationPrincipal Jwt jwt) {
 
         UUID userId = jwt != null ? extractAndEnsureUser(jwt) : null;
+        long likeCount = likeService.getLikeCount(blogPostId);
+        boolean isLiked = userId != null && likeService.isLikedByUser(blogPostId, userId);
         
-        return ResponseEntity.ok(new LikeResponse(
-            likeService.getLikeCount(blogPostId),
-            userId != null && likeService.isLikedByUser(blogPostId, userId)
-        ));
+        // Tag derived from the response values; Spring answers a matching If-None-Match with 304 and no body
+        return ETags.okPrivate(
+            ETags.strong(blogPostId, userId, likeCount, isLiked),
+            new LikeResponse(likeCount, isLiked));
     }
     
     private UUID extractAndEnsureUser(Jwt jwt) {
@@ -0,0 +1,10 @@
+package dev.mkopp.mysite.blog.infrastructure.adapter.in.rest.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Blog post full-text search result")
+public record BlogPostSearchResultResponse(
+    @Schema(description = "Matching post") BlogPostSummaryResponse post,
+    @Schema(description = "Relevance, higher is better") double rank,
+    @Schema(description = "HTML-escaped content excerpt with matches wrapped in <mark> tags") String snippet
+) {}
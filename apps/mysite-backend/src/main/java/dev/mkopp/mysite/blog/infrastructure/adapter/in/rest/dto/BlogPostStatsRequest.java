@@ -0,0 +1,11 @@
+package dev.mkopp.mysite.blog.infrastructure.adapter.in.rest.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+import java.util.UUID;
+
+@Schema(description = "Posts to load like and comment stats for")
+public record BlogPostStatsRequest(
+    @Schema(description = "Blog post IDs, at most 100") List<UUID> blogPostIds
+) {}
@@ -0,0 +1,13 @@
+package dev.mkopp.mysite.blog.infrastructure.adapter.in.rest.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.UUID;
+
+@Schema(description = "Like and comment stats of a blog post")
+public record BlogPostStatsResponse(
+    @Schema(description = "Blog post ID") UUID blogPostId,
+    @Schema(description = "Like count") long likeCount,
+    @Schema(description = "Is liked by the current user, false for anonymous requests") boolean likedByViewer,
+    @Schema(description = "Comment count") long commentCount
+) {}
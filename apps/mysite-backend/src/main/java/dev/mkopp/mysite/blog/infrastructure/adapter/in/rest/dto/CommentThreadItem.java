@@ -0,0 +1,21 @@
+package dev.mkopp.mysite.blog.infrastructure.adapter.in.rest.dto;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Comment with its nested replies. {@code replies} may hold fewer entries than {@code replyCount}
+ * when the thread was cut off by the depth or node limit; the rest can be loaded via the replies endpoint.
+ */
+public record CommentThreadItem(
+    UUID id,
+    UUID userId,
+    String content,
+    Instant createdAt,
+    Instant updatedAt,
+    long replyCount,
+    long likeCount,
+    boolean likedByViewer,
+    List<CommentThreadItem> replies
+) {}
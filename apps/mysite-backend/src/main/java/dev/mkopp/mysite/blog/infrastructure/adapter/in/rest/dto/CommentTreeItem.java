@@ -10,5 +10,6 @@ public record CommentTreeItem(
     Instant createdAt,
     Instant updatedAt,
     long replyCount,
-    long likeCount
+    long likeCount,
+    boolean likedByViewer
 ) {}
@@ -2,8 +2,12 @@ package dev.mkopp.mysite.blog.infrastructure.adapter.in.rest.mapper;
 
 import dev.mkopp.mysite.blog.domain.model.Author;
 import dev.mkopp.mysite.blog.domain.model.BlogPost;
+import dev.mkopp.mysite.blog.domain.model.BlogPostSearchHit;
+import dev.mkopp.mysite.blog.domain.model.BlogPostSummary;
 import dev.mkopp.mysite.blog.infrastructure.adapter.in.rest.dto.BlogPostRequest;
 import dev.mkopp.mysite.blog.infrastructure.adapter.in.rest.dto.BlogPostResponse;
+import dev.mkopp.mysite.blog.infrastructure.adapter.in.rest.dto.BlogPostSearchResultResponse;
+import dev.mkopp.mysite.blog.infrastructure.adapter.in.rest.dto.BlogPostSummaryResponse;
 import org.mapstruct.*;
 
 @Mapper(
@@ -20,6 +24,13 @@ public interface BlogPostRestMapper {
     @Mapping(target = "authorName", source = "author", qualifiedByName = "mapAuthorName")
     BlogPostResponse toResponse(BlogPost domain);
     
+    @Mapping(target = "authorId", source = "author.id")
+    @Mapping(target = "authorName", source = "author", qualifiedByName = "mapAuthorName")
+    BlogPostSummaryResponse toSummaryResponse(BlogPostSummary summary);
+    
+    @Mapping(target = "post", source = "summary")
+    BlogPostSearchResultResponse toSearchResultResponse(BlogPostSearchHit hit);
+    
     @Named("mapAuthorName")
     default String mapAuthorName(Author author) {
         if (author == null) return null;
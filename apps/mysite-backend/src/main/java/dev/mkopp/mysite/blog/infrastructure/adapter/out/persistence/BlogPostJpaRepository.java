@@ -1,11 +1,21 @@
 package dev.mkopp.mysite.blog.infrastructure.adapter.out.persistence;
 
 import dev.mkopp.mysite.blog.infrastructure.adapter.out.persistence.entity.BlogPostEntity;
+import dev.mkopp.mysite.blog.infrastructure.adapter.out.persistence.projection.BlogPostSearchHitProjection;
+import dev.mkopp.mysite.blog.infrastructure.adapter.out.persistence.projection.BlogPostSummaryProjection;
+import dev.mkopp.mysite.blog.infrastructure.adapter.out.persistence.projection.PostTagProjection;
+import dev.mkopp.mysite.blog.infrastructure.adapter.out.persistence.projection.PostVersionProjection;
+import dev.mkopp.mysite.blog.infrastructure.adapter.out.persistence.projection.VersionProjection;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -15,8 +25,99 @@ interface BlogPostJpaRepository extends JpaRepository<BlogPostEntity, UUID> {
     @Query("SELECT bp FROM BlogPostEntity bp LEFT JOIN FETCH bp.tags WHERE bp.slug = :slug")
     Optional<BlogPostEntity> findBySlugWithTags(String slug);
     
-    Page<BlogPostEntity> findAllByOrderByPublishedAtDesc(Pageable pageable);
+    // Paged listings run in two phases: page the IDs, then fetch those posts with their tags.
+    // A paged fetch join over the tag collection is rejected by fail_on_pagination_over_collection_fetch.
     
-    @Query("SELECT bp FROM BlogPostEntity bp JOIN bp.tags t WHERE t.name = :tagName ORDER BY bp.publishedAt DESC")
-    Page<BlogPostEntity> findByTagName(String tagName, Pageable pageable);
+    @Query("SELECT bp.id FROM BlogPostEntity bp")
+    List<UUID> findAllIds();
+    
+    @Query("SELECT bp.id FROM BlogPostEntity bp WHERE bp.id IN :ids")
+    List<UUID> findIdsByIdIn(Collection<UUID> ids);
+    
+    @Query(value = "SELECT bp.id FROM BlogPostEntity bp ORDER BY bp.publishedAt DESC",
+        countQuery = "SELECT COUNT(bp) FROM BlogPostEntity bp")
+    Page<UUID> findAllIds(Pageable pageable);
+    
+    @Query(value = "SELECT bp.id FROM BlogPostEntity bp JOIN bp.tags t WHERE t.name = :tagName ORDER BY bp.publishedAt DESC",
+        countQuery = "SELECT COUNT(bp) FROM BlogPostEntity bp JOIN bp.tags t WHERE t.name = :tagName")
+    Page<UUID> findIdsByTagName(String tagName, Pageable pageable);
+    
+    // Keyset scrolling over (published_at, id), backed by idx_blog_posts_published_id
+    Window<BlogPostEntity> findAllByOrderByPublishedAtDescIdDesc(ScrollPosition position, Limit limit);
+    
+    @Query("SELECT bp FROM BlogPostEntity bp LEFT JOIN FETCH bp.tags WHERE bp.id IN :ids")
+    List<BlogPostEntity> findAllWithTagsByIdIn(Collection<UUID> ids);
+    
+    @Query(value = """
+        SELECT new dev.mkopp.mysite.blog.infrastructure.adapter.out.persistence.projection.BlogPostSummaryProjection(
+            bp.id, bp.slug, bp.title, bp.description, bp.authorId, bp.publishedAt, bp.thumbnailUrl, bp.type, bp.externalUrl)
+        FROM BlogPostEntity bp
+        ORDER BY bp.publishedAt DESC
+        """,
+        countQuery = "SELECT COUNT(bp) FROM BlogPostEntity bp")
+    Page<BlogPostSummaryProjection> findAllSummaries(Pageable pageable);
+    
+    @Query("""
+        SELECT new dev.mkopp.mysite.blog.infrastructure.adapter.out.persistence.projection.BlogPostSummaryProjection(
+            bp.id, bp.slug, bp.title, bp.description, bp.authorId, bp.publishedAt, bp.thumbnailUrl, bp.type, bp.externalUrl)
+        FROM BlogPostEntity bp
+        ORDER BY bp.publishedAt DESC, bp.id DESC
+        """)
+    List<BlogPostSummaryProjection> findAllSummaries();
+    
+    @Query(value = """
+        SELECT new dev.mkopp.mysite.blog.infrastructure.adapter.out.persistence.projection.BlogPostSummaryProjection(
+            bp.id, bp.slug, bp.title, bp.description, bp.authorId, bp.publishedAt, bp.thumbnailUrl, bp.type, bp.externalUrl)
+        FROM BlogPostEntity bp JOIN bp.tags t
+        WHERE t.name = :tagName
+        ORDER BY bp.publishedAt DESC
+        """,
+        countQuery = "SELECT COUNT(bp) FROM BlogPostEntity bp JOIN bp.tags t WHERE t.name = :tagName")
+    Page<BlogPostSummaryProjection> findSummariesByTagName(String tagName, Pageable pageable);
+    
+    @Query("""
+        SELECT new dev.mkopp.mysite.blog.infrastructure.adapter.out.persistence.projection.BlogPostSummaryProjection(
+            bp.id, bp.slug, bp.title, bp.description, bp.authorId, bp.publishedAt, bp.thumbnailUrl, bp.type, bp.externalUrl)
+        FROM BlogPostEntity bp
+        WHERE bp.id IN :ids
+        """)
+    List<BlogPostSummaryProjection> findSummariesByIdIn(Collection<UUID> ids);
+    
+    // Ranked against the generated search_vector column (GIN index idx_blog_posts_search).
+    // Postgres evaluates ts_headline only for the rows that survive ORDER BY/LIMIT.
+    // The content is HTML-escaped before highlighting, so the <mark> tags are the only markup in the snippet.
+    @Query(value = """
+        SELECT bp.id AS id,
+               ts_rank_cd(bp.search_vector, q)::float8 AS rank,
+               ts_headline('english',
+                   replace(replace(replace(bp.content, '&', '&amp;'), '<', '&lt;'), '>', '&gt;'),
+                   q,
+                   'StartSel=<mark>, StopSel=</mark>, MaxFragments=2, MaxWords=30, MinWords=10') AS snippet
+        FROM blog.blog_posts bp, websearch_to_tsquery('english', :query) q
+        WHERE bp.search_vector @@ q
+        ORDER BY rank DESC, bp.published_at DESC, bp.id
+        """,
+        countQuery = """
+        SELECT count(*)
+        FROM blog.blog_posts bp
+        WHERE bp.search_vector @@ websearch_to_tsquery('english', :query)
+        """,
+        nativeQuery = true)
+    Page<BlogPostSearchHitProjection> search(String query, Pageable pageable);
+    
+    @Query("""
+        SELECT new dev.mkopp.mysite.blog.infrastructure.adapter.out.persistence.projection.PostTagProjection(bp.id, t.name)
+        FROM BlogPostEntity bp JOIN bp.tags t
+        WHERE bp.id IN :postIds
+        """)
+    List<PostTagProjection> findTagNamesByPostIds(Collection<UUID> postIds);
+    
+    @Query("SELECT new dev.mkopp.mysite.blog.infrastructure.adapter.out.persistence.projection.PostTagProjection(bp.id, t.name) FROM BlogPostEntity bp JOIN bp.tags t")
+    List<PostTagProjection> findAllTagNames();
+    
+    @Query("SELECT new dev.mkopp.mysite.blog.infrastructure.adapter.out.persistence.projection.PostVersionProjection(bp.id, bp.updatedAt) FROM BlogPostEntity bp WHERE bp.slug = :slug")
+    Optional<PostVersionProjection> findVersionBySlug(String slug);
+    
+    @Query("SELECT new dev.mkopp.mysite.blog.infrastructure.adapter.out.persistence.projection.VersionProjection(COUNT(bp), MAX(bp.updatedAt)) FROM BlogPostEntity bp")
+    VersionProjection findCatalogVersion();
 }
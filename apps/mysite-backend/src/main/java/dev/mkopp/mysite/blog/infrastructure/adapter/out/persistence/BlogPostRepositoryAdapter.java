@@ -1,15 +1,34 @@
 package dev.mkopp.mysite.blog.infrastructure.adapter.out.persistence;
 
+import dev.mkopp.mysite.blog.application.dto.ContentVersion;
 import dev.mkopp.mysite.blog.application.port.out.BlogPostRepository;
 import dev.mkopp.mysite.blog.domain.model.BlogPost;
+import dev.mkopp.mysite.blog.domain.model.BlogPostSearchHit;
+import dev.mkopp.mysite.blog.domain.model.BlogPostSummary;
+import dev.mkopp.mysite.blog.infrastructure.adapter.out.persistence.entity.BlogPostEntity;
 import dev.mkopp.mysite.blog.infrastructure.adapter.out.persistence.mapper.BlogPostEntityMapper;
+import dev.mkopp.mysite.blog.infrastructure.adapter.out.persistence.projection.BlogPostSearchHitProjection;
+import dev.mkopp.mysite.blog.infrastructure.adapter.out.persistence.projection.BlogPostSummaryProjection;
+import dev.mkopp.mysite.blog.infrastructure.adapter.out.persistence.projection.PostTagProjection;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Component;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Component
 @RequiredArgsConstructor
@@ -30,6 +49,16 @@ class BlogPostRepositoryAdapter implements BlogPostRepository {
         return jpaRepository.findById(id).map(mapper::toDomain);
     }
     
+    @Override
+    public List<UUID> findAllIds() {
+        return jpaRepository.findAllIds();
+    }
+    
+    @Override
+    public Set<UUID> findExistingIds(Collection<UUID> ids) {
+        return ids.isEmpty() ? Set.of() : Set.copyOf(jpaRepository.findIdsByIdIn(ids));
+    }
+    
     @Override
     public Optional<BlogPost> findBySlug(String slug) {
         return jpaRepository.findBySlugWithTags(slug).map(mapper::toDomain);
@@ -37,18 +66,124 @@ class BlogPostRepositoryAdapter implements BlogPostRepository {
     
     @Override
     public Page<BlogPost> findAll(Pageable pageable) {
-        return jpaRepository.findAllByOrderByPublishedAtDesc(pageable)
-            .map(mapper::toDomain);
+        return fetchPage(jpaRepository.findAllIds(pageable));
     }
     
     @Override
     public Page<BlogPost> findByTagName(String tagName, Pageable pageable) {
-        return jpaRepository.findByTagName(tagName, pageable)
-            .map(mapper::toDomain);
+        return fetchPage(jpaRepository.findIdsByTagName(tagName, pageable));
+    }
+    
+    @Override
+    public Window<BlogPost> scrollAll(ScrollPosition position, int limit) {
+        Window<BlogPostEntity> window = jpaRepository.findAllByOrderByPublishedAtDescIdDesc(position, Limit.of(limit));
+        if (window.isEmpty()) {
+            return Window.from(List.of(), window::positionAt, false);
+        }
+        
+        Map<UUID, BlogPostEntity> entitiesById = jpaRepository.findAllWithTagsByIdIn(window.map(BlogPostEntity::getId).getContent()).stream()
+            .collect(Collectors.toMap(BlogPostEntity::getId, Function.identity()));
+        List<BlogPostEntity> entities = window.getContent().stream()
+            .map(entity -> entitiesById.getOrDefault(entity.getId(), entity))
+            .toList();
+        
+        return Window.from(mapper.toDomain(entities), window::positionAt, window.hasNext());
+    }
+    
+    @Override
+    public Page<BlogPostSummary> findAllSummaries(Pageable pageable) {
+        return toSummaries(jpaRepository.findAllSummaries(pageable));
+    }
+    
+    @Override
+    public List<BlogPostSummary> findAllSummaries() {
+        Map<UUID, Set<String>> tagsByPostId = jpaRepository.findAllTagNames().stream()
+            .collect(Collectors.groupingBy(
+                PostTagProjection::postId,
+                Collectors.mapping(PostTagProjection::tagName, Collectors.toSet())));
+        return mapper.toSummaries(jpaRepository.findAllSummaries(), tagsByPostId);
+    }
+    
+    @Override
+    public Page<BlogPostSummary> findSummariesByTagName(String tagName, Pageable pageable) {
+        return toSummaries(jpaRepository.findSummariesByTagName(tagName, pageable));
+    }
+    
+    @Override
+    public Page<BlogPostSearchHit> search(String query, Pageable pageable) {
+        // relevance order is fixed by the query, client sort properties do not apply to native SQL
+        Page<BlogPostSearchHitProjection> hits = jpaRepository.search(query,
+            PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()));
+        if (hits.isEmpty()) {
+            return new PageImpl<>(List.of(), hits.getPageable(), hits.getTotalElements());
+        }
+        
+        List<UUID> ids = hits.map(BlogPostSearchHitProjection::getId).getContent();
+        Map<UUID, BlogPostSummary> summariesById = mapper.toSummaries(jpaRepository.findSummariesByIdIn(ids), findTagsByPostIds(ids)).stream()
+            .collect(Collectors.toMap(BlogPostSummary::getId, Function.identity()));
+        
+        List<BlogPostSearchHit> results = hits.getContent().stream()
+            .filter(hit -> summariesById.containsKey(hit.getId()))
+            .map(hit -> BlogPostSearchHit.builder()
+                .summary(summariesById.get(hit.getId()))
+                .rank(hit.getRank())
+                .snippet(hit.getSnippet())
+                .build())
+            .toList();
+        
+        return new PageImpl<>(results, hits.getPageable(), hits.getTotalElements());
+    }
+    
+    @Override
+    public Optional<ContentVersion> findVersionBySlug(String slug) {
+        return jpaRepository.findVersionBySlug(slug)
+            .map(version -> new ContentVersion(version.id().toString(), version.updatedAt()));
+    }
+    
+    @Override
+    public ContentVersion findCatalogVersion() {
+        var version = jpaRepository.findCatalogVersion();
+        return new ContentVersion("posts:" + version.count(), version.lastModified());
     }
     
     @Override
     public void deleteById(UUID id) {
         jpaRepository.deleteById(id);
     }
+    
+    private Page<BlogPost> fetchPage(Page<UUID> ids) {
+        if (ids.isEmpty()) {
+            return new PageImpl<>(List.of(), ids.getPageable(), ids.getTotalElements());
+        }
+        
+        Map<UUID, BlogPostEntity> entitiesById = jpaRepository.findAllWithTagsByIdIn(ids.getContent()).stream()
+            .collect(Collectors.toMap(BlogPostEntity::getId, Function.identity()));
+        
+        // IN does not preserve order, so restore the order of the ID page
+        List<BlogPostEntity> entities = ids.getContent().stream()
+            .map(entitiesById::get)
+            .filter(Objects::nonNull)
+            .toList();
+        
+        return new PageImpl<>(mapper.toDomain(entities), ids.getPageable(), ids.getTotalElements());
+    }
+    
+    private Page<BlogPostSummary> toSummaries(Page<BlogPostSummaryProjection> projections) {
+        Map<UUID, Set<String>> tagsByPostId = findTagsByPostIds(projections.map(BlogPostSummaryProjection::id).getContent());
+        
+        return new PageImpl<>(
+            mapper.toSummaries(projections.getContent(), tagsByPostId),
+            projections.getPageable(),
+            projections.getTotalElements());
+    }
+    
+    private Map<UUID, Set<String>> findTagsByPostIds(Collection<UUID> postIds) {
+        if (postIds.isEmpty()) {
+            return Map.of();
+        }
+        return jpaRepository.findTagNamesByPostIds(postIds).stream()
+            .collect(Collectors.groupingBy(
+                PostTagProjection::postId,
+                Collectors.mapping(PostTagProjection::tagName, Collectors.toSet())));
+    }
 }
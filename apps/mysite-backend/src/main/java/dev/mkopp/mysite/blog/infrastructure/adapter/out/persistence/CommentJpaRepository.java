@@ -1,11 +1,21 @@
 package dev.mkopp.mysite.blog.infrastructure.adapter.out.persistence;
 
 import dev.mkopp.mysite.blog.infrastructure.adapter.out.persistence.entity.CommentEntity;
+import dev.mkopp.mysite.blog.infrastructure.adapter.out.persistence.projection.CommentThreadRowProjection;
+import dev.mkopp.mysite.blog.infrastructure.adapter.out.persistence.projection.PostCountProjection;
+import dev.mkopp.mysite.blog.infrastructure.adapter.out.persistence.projection.VersionProjection;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 interface CommentJpaRepository extends JpaRepository<CommentEntity, UUID> {
@@ -13,10 +23,80 @@ interface CommentJpaRepository extends JpaRepository<CommentEntity, UUID> {
     @Query("SELECT c FROM CommentEntity c WHERE c.blogPostId = :blogPostId AND c.parentCommentId IS NULL ORDER BY c.createdAt DESC")
     Page<CommentEntity> findTopLevelByBlogPostId(UUID blogPostId, Pageable pageable);
     
+    // Keyset scrolling over (created_at, id), backed by idx_comments_post_created_id
+    Window<CommentEntity> findByBlogPostIdAndParentCommentIdIsNullOrderByCreatedAtDescIdDesc(
+        UUID blogPostId, ScrollPosition position, Limit limit);
+    
     @Query("SELECT c FROM CommentEntity c WHERE c.parentCommentId = :parentCommentId ORDER BY c.createdAt ASC")
     Page<CommentEntity> findRepliesByParentCommentId(UUID parentCommentId, Pageable pageable);
     
     long countByBlogPostId(UUID blogPostId);
     
+    @Query("""
+        SELECT new dev.mkopp.mysite.blog.infrastructure.adapter.out.persistence.projection.PostCountProjection(c.blogPostId, COUNT(c))
+        FROM CommentEntity c
+        WHERE c.blogPostId IN :blogPostIds
+        GROUP BY c.blogPostId
+        """)
+    List<PostCountProjection> countGroupedByBlogPostId(Collection<UUID> blogPostIds);
+    
+    // Walks parent_comment_id breadth-first (idx_comments_parent). Parents always sort before their
+    // replies, so cutting the result at :maxNodes never leaves an orphaned reply.
+    @Query(value = """
+        WITH RECURSIVE thread AS (
+            SELECT c.id, c.user_id, c.parent_comment_id, c.content, c.created_at, c.updated_at,
+                   c.reply_count, c.like_count, 0 AS depth
+            FROM blog.comments c
+            WHERE c.blog_post_id = :blogPostId AND c.parent_comment_id IS NULL
+            UNION ALL
+            SELECT r.id, r.user_id, r.parent_comment_id, r.content, r.created_at, r.updated_at,
+                   r.reply_count, r.like_count, t.depth + 1
+            FROM blog.comments r
+            JOIN thread t ON r.parent_comment_id = t.id
+            WHERE t.depth < :maxDepth
+        )
+        SELECT id AS id, user_id AS userId, parent_comment_id AS parentCommentId, content AS content,
+               created_at AS createdAt, updated_at AS updatedAt,
+               reply_count AS replyCount, like_count AS likeCount, depth AS depth
+        FROM thread
+        ORDER BY depth, CASE WHEN depth = 0 THEN created_at END DESC, created_at, id
+        LIMIT :maxNodes
+        """, nativeQuery = true)
+    List<CommentThreadRowProjection> findThreadByBlogPostId(UUID blogPostId, int maxDepth, int maxNodes);
+    
+    @Query("SELECT c.blogPostId FROM CommentEntity c WHERE c.id = :commentId")
+    Optional<UUID> findBlogPostIdById(UUID commentId);
+    
+    @Query("SELECT new dev.mkopp.mysite.blog.infrastructure.adapter.out.persistence.projection.VersionProjection(COUNT(c), MAX(c.updatedAt)) FROM CommentEntity c WHERE c.blogPostId = :blogPostId")
+    VersionProjection findCommentVersionByBlogPostId(UUID blogPostId);
+    
+    @Query("""
+        SELECT new dev.mkopp.mysite.blog.infrastructure.adapter.out.persistence.projection.VersionProjection(COUNT(cl), MAX(cl.createdAt))
+        FROM CommentLikeEntity cl, CommentEntity c
+        WHERE cl.commentId = c.id AND c.blogPostId = :blogPostId
+        """)
+    VersionProjection findCommentLikeVersionByBlogPostId(UUID blogPostId);
+    
     long countByParentCommentId(UUID parentCommentId);
+    
+    @Modifying
+    @Query(value = "UPDATE blog.comments SET reply_count = GREATEST(reply_count + :delta, 0) WHERE id = :commentId", nativeQuery = true)
+    int adjustReplyCount(UUID commentId, long delta);
+    
+    // Recomputes both counters from the source tables; only rows that drifted are written.
+    @Modifying
+    @Query(value = """
+        UPDATE blog.comments c
+        SET reply_count = actual.reply_count,
+            like_count = actual.like_count
+        FROM (
+            SELECT cc.id,
+                   (SELECT count(*) FROM blog.comments r WHERE r.parent_comment_id = cc.id) AS reply_count,
+                   (SELECT count(*) FROM blog.comment_likes l WHERE l.comment_id = cc.id) AS like_count
+            FROM blog.comments cc
+        ) actual
+        WHERE c.id = actual.id
+          AND (c.reply_count <> actual.reply_count OR c.like_count <> actual.like_count)
+        """, nativeQuery = true)
+    int reconcileCounters();
 }
@@ -1,16 +1,26 @@
 package dev.mkopp.mysite.blog.infrastructure.adapter.out.persistence;
 
+import dev.mkopp.mysite.blog.application.dto.ContentVersion;
 import dev.mkopp.mysite.blog.application.port.out.CommentRepository;
 import dev.mkopp.mysite.blog.domain.model.Comment;
 import dev.mkopp.mysite.blog.infrastructure.adapter.out.persistence.mapper.CommentEntityMapper;
+import dev.mkopp.mysite.blog.infrastructure.adapter.out.persistence.projection.PostCountProjection;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Component;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Component
 @RequiredArgsConstructor
@@ -42,24 +52,84 @@ class CommentRepositoryAdapter implements CommentRepository {
             .map(mapper::toDomain);
     }
     
+    @Override
+    public Window<Comment> scrollTopLevelByBlogPostId(UUID blogPostId, ScrollPosition position, int limit) {
+        return jpaRepository.findByBlogPostIdAndParentCommentIdIsNullOrderByCreatedAtDescIdDesc(blogPostId, position, Limit.of(limit))
+            .map(mapper::toDomain);
+    }
+    
     @Override
     public Page<Comment> findRepliesByParentCommentId(UUID parentCommentId, Pageable pageable) {
         return jpaRepository.findRepliesByParentCommentId(parentCommentId, pageable)
             .map(mapper::toDomain);
     }
     
+    @Override
+    public List<Comment> findThreadByBlogPostId(UUID blogPostId, int maxDepth, int maxNodes) {
+        return jpaRepository.findThreadByBlogPostId(blogPostId, maxDepth, maxNodes).stream()
+            .map(row -> Comment.builder()
+                .id(row.getId())
+                .blogPostId(blogPostId)
+                .userId(row.getUserId())
+                .parentCommentId(row.getParentCommentId())
+                .content(row.getContent())
+                .createdAt(row.getCreatedAt())
+                .updatedAt(row.getUpdatedAt())
+                .replyCount(row.getReplyCount())
+                .likeCount(row.getLikeCount())
+                .build())
+            .toList();
+    }
+    
     @Override
     public long countByBlogPostId(UUID blogPostId) {
         return jpaRepository.countByBlogPostId(blogPostId);
     }
     
+    @Override
+    public Map<UUID, Long> countByBlogPostIds(Collection<UUID> blogPostIds) {
+        return jpaRepository.countGroupedByBlogPostId(blogPostIds).stream()
+            .collect(Collectors.toMap(PostCountProjection::postId, PostCountProjection::count));
+    }
+    
     @Override
     public long countByParentCommentId(UUID parentCommentId) {
         return jpaRepository.countByParentCommentId(parentCommentId);
     }
     
+    @Override
+    public Optional<UUID> findBlogPostIdById(UUID commentId) {
+        return jpaRepository.findBlogPostIdById(commentId);
+    }
+    
+    @Override
+    public ContentVersion findThreadVersion(UUID blogPostId) {
+        var comments = jpaRepository.findCommentVersionByBlogPostId(blogPostId);
+        var likes = jpaRepository.findCommentLikeVersionByBlogPostId(blogPostId);
+        return new ContentVersion(
+            "comments:" + comments.count() + ":likes:" + likes.count(),
+            latest(comments.lastModified(), likes.lastModified()));
+    }
+    
+    @Override
+    public void adjustReplyCount(UUID commentId, long delta) {
+        jpaRepository.adjustReplyCount(commentId, delta);
+    }
+    
+    @Override
+    public int reconcileCounters() {
+        return jpaRepository.reconcileCounters();
+    }
+    
     @Override
     public void deleteById(UUID id) {
         jpaRepository.deleteById(id);
     }
+    
+    private static Instant latest(Instant a, Instant b) {
+        if (a == null) {
+            return b;
+        }
+        return b == null || a.isAfter(b) ? a : b;
+    }
 }
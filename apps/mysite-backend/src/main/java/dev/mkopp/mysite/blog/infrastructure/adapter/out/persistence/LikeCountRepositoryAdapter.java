@@ -0,0 +1,103 @@
+package dev.mkopp.mysite.blog.infrastructure.adapter.out.persistence;
+
+import dev.mkopp.mysite.blog.application.port.out.LikeCountRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Plain JDBC rather than JPA: the flush is a JDBC batch of upserts, which native JPA queries
+ * cannot express, and like_counts has no entity of its own.
+ */
+@Component
+@RequiredArgsConstructor
+class LikeCountRepositoryAdapter implements LikeCountRepository {
+    
+    private static final String ADD_DELTA = """
+        INSERT INTO blog.like_counts (blog_post_id, like_count, updated_at)
+        SELECT ?, ?, now()
+        WHERE EXISTS (SELECT 1 FROM blog.blog_posts WHERE id = ?)
+        ON CONFLICT (blog_post_id) DO UPDATE
+        SET like_count = GREATEST(blog.like_counts.like_count + EXCLUDED.like_count, 0),
+            updated_at = now()
+        """;
+    
+    private static final String RECONCILE = """
+        INSERT INTO blog.like_counts (blog_post_id, like_count, updated_at)
+        SELECT p.id, count(l.id), now()
+        FROM blog.blog_posts p
+        LEFT JOIN blog.blog_likes l ON l.blog_post_id = p.id
+        GROUP BY p.id
+        ON CONFLICT (blog_post_id) DO UPDATE
+        SET like_count = EXCLUDED.like_count,
+            updated_at = now()
+        WHERE blog.like_counts.like_count <> EXCLUDED.like_count
+        """;
+    
+    // joined from blog_posts, so unknown IDs yield no row while posts without a total yet count zero
+    private static final String FIND_COUNT = """
+        SELECT coalesce(lc.like_count, 0)
+        FROM blog.blog_posts p
+        LEFT JOIN blog.like_counts lc ON lc.blog_post_id = p.id
+        WHERE p.id = ?
+        """;
+    
+    private static final String FIND_COUNTS = """
+        SELECT p.id AS blog_post_id, coalesce(lc.like_count, 0) AS like_count
+        FROM blog.blog_posts p
+        LEFT JOIN blog.like_counts lc ON lc.blog_post_id = p.id
+        WHERE p.id = ANY(?)
+        """;
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    @Override
+    @Transactional(readOnly = true)
+    public OptionalLong findCountByBlogPostId(UUID blogPostId) {
+        List<Long> counts = jdbcTemplate.queryForList(FIND_COUNT, Long.class, blogPostId);
+        return counts.isEmpty() ? OptionalLong.empty() : OptionalLong.of(counts.get(0));
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public Map<UUID, Long> findCountsByBlogPostIds(Collection<UUID> blogPostIds) {
+        Map<UUID, Long> counts = new HashMap<>();
+        if (blogPostIds.isEmpty()) {
+            return counts;
+        }
+        // one array parameter keeps a single statement shape for any number of IDs
+        jdbcTemplate.query(
+            FIND_COUNTS,
+            ps -> ps.setArray(1, ps.getConnection().createArrayOf("uuid", blogPostIds.toArray())),
+            rs -> {
+                counts.put(rs.getObject("blog_post_id", UUID.class), rs.getLong("like_count"));
+            });
+        return counts;
+    }
+    
+    @Override
+    @Transactional
+    public void addAll(Map<UUID, Long> deltasByBlogPostId) {
+        if (deltasByBlogPostId.isEmpty()) {
+            return;
+        }
+        List<Object[]> batch = new ArrayList<>(deltasByBlogPostId.size());
+        deltasByBlogPostId.forEach((blogPostId, delta) -> batch.add(new Object[] {blogPostId, delta, blogPostId}));
+        jdbcTemplate.batchUpdate(ADD_DELTA, batch);
+    }
+    
+    @Override
+    @Transactional
+    public int reconcile() {
+        return jdbcTemplate.update(RECONCILE);
+    }
+}
@@ -1,8 +1,12 @@
 package dev.mkopp.mysite.blog.infrastructure.adapter.out.persistence;
 
 import dev.mkopp.mysite.blog.infrastructure.adapter.out.persistence.entity.LikeEntity;
+import dev.mkopp.mysite.blog.infrastructure.adapter.out.persistence.projection.LikeDeltaProjection;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -10,4 +14,27 @@ interface LikeJpaRepository extends JpaRepository<LikeEntity, UUID> {
     Optional<LikeEntity> findByBlogPostIdAndUserId(UUID blogPostId, UUID userId);
     boolean existsByBlogPostIdAndUserId(UUID blogPostId, UUID userId);
     long countByBlogPostId(UUID blogPostId);
+    
+    @Query("SELECT l.blogPostId FROM LikeEntity l WHERE l.userId = :userId AND l.blogPostId IN :blogPostIds")
+    List<UUID> findLikedBlogPostIds(UUID userId, Collection<UUID> blogPostIds);
+    
+    // Delete-if-exists, otherwise insert, in one round trip. A concurrent duplicate insert ends in
+    // DO NOTHING (delta 0) instead of violating unique_user_post_like. Totals are not counted here,
+    // they are kept by LikeCounters from the returned delta.
+    @Query(value = """
+        WITH removed AS (
+            DELETE FROM blog.blog_likes
+            WHERE blog_post_id = :blogPostId AND user_id = :userId
+            RETURNING id
+        ), added AS (
+            INSERT INTO blog.blog_likes (id, blog_post_id, user_id, created_at, updated_at)
+            SELECT gen_random_uuid(), :blogPostId, :userId, now(), now()
+            WHERE NOT EXISTS (SELECT 1 FROM removed)
+            ON CONFLICT (blog_post_id, user_id) DO NOTHING
+            RETURNING id
+        )
+        SELECT NOT EXISTS (SELECT 1 FROM removed) AS liked,
+               CAST((SELECT count(*) FROM added) - (SELECT count(*) FROM removed) AS integer) AS delta
+        """, nativeQuery = true)
+    LikeDeltaProjection toggle(UUID blogPostId, UUID userId);
 }
@@ -1,12 +1,16 @@
 package dev.mkopp.mysite.blog.infrastructure.adapter.out.persistence;
 
+import dev.mkopp.mysite.blog.application.dto.LikeToggle;
 import dev.mkopp.mysite.blog.application.port.out.LikeRepository;
 import dev.mkopp.mysite.blog.domain.model.Like;
 import dev.mkopp.mysite.blog.infrastructure.adapter.out.persistence.mapper.LikeEntityMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Repository
@@ -34,6 +38,17 @@ public class LikeRepositoryAdapter implements LikeRepository {
         jpaRepository.deleteById(like.getId());
     }
     
+    @Override
+    public LikeToggle toggle(UUID blogPostId, UUID userId) {
+        var result = jpaRepository.toggle(blogPostId, userId);
+        return new LikeToggle(result.getLiked(), result.getDelta());
+    }
+    
+    @Override
+    public Set<UUID> findLikedBlogPostIds(UUID userId, Collection<UUID> blogPostIds) {
+        return new HashSet<>(jpaRepository.findLikedBlogPostIds(userId, blogPostIds));
+    }
+    
     @Override
     public long countByBlogPostId(UUID blogPostId) {
         return jpaRepository.countByBlogPostId(blogPostId);
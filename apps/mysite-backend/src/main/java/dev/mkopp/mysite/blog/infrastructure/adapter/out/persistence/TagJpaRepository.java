@@ -2,10 +2,42 @@ package dev.mkopp.mysite.blog.infrastructure.adapter.out.persistence;
 
 import dev.mkopp.mysite.blog.infrastructure.adapter.out.persistence.entity.TagEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 public interface TagJpaRepository extends JpaRepository<TagEntity, UUID> {
     Optional<TagEntity> findByName(String name);
+    
+    List<TagEntity> findByNameIn(Collection<String> names);
+    
+    /**
+     * Inserts the tags that do not exist yet. Concurrent creators of the same tag
+     * no longer race on the unique name constraint, the loser simply inserts nothing.
+     */
+    @Modifying
+    @Query(value = """
+        INSERT INTO blog.blog_tags (id, name, created_at, updated_at)
+        SELECT gen_random_uuid(), name, now(), now()
+        FROM (SELECT DISTINCT unnest(CAST(ARRAY[:names] AS varchar[])) AS name) new_tags
+        ON CONFLICT (name) DO NOTHING
+        """, nativeQuery = true)
+    int insertMissingByName(Collection<String> names);
+    
+    /**
+     * Resolves tag names to entities, creating missing ones, in at most two statements.
+     */
+    default Set<TagEntity> findOrCreateAllByName(Collection<String> names) {
+        if (names == null || names.isEmpty()) {
+            return new HashSet<>();
+        }
+        insertMissingByName(names);
+        return new HashSet<>(findByNameIn(names));
+    }
 }
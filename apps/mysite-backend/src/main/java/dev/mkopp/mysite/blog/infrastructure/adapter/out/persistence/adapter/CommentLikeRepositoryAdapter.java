@@ -1,5 +1,6 @@
 package dev.mkopp.mysite.blog.infrastructure.adapter.out.persistence.adapter;
 
+import dev.mkopp.mysite.blog.application.dto.LikeState;
 import dev.mkopp.mysite.blog.application.port.out.CommentLikeRepository;
 import dev.mkopp.mysite.blog.domain.model.CommentLike;
 import dev.mkopp.mysite.blog.infrastructure.adapter.out.persistence.mapper.CommentLikeEntityMapper;
@@ -7,7 +8,10 @@ import dev.mkopp.mysite.blog.infrastructure.adapter.out.persistence.repository.C
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Repository
@@ -35,6 +39,21 @@ public class CommentLikeRepositoryAdapter implements CommentLikeRepository {
         jpaRepository.deleteById(commentLike.getId());
     }
     
+    @Override
+    public LikeState toggle(UUID commentId, UUID userId) {
+        var result = jpaRepository.toggle(commentId, userId);
+        // no count row means the comment itself is gone
+        return new LikeState(result.getLiked(), result.getLikeCount() != null ? result.getLikeCount() : 0);
+    }
+    
+    @Override
+    public Set<UUID> findLikedCommentIds(UUID userId, Collection<UUID> commentIds) {
+        if (commentIds.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(jpaRepository.findLikedCommentIds(userId, commentIds));
+    }
+    
     @Override
     public long countByCommentId(UUID commentId) {
         return jpaRepository.countByCommentId(commentId);
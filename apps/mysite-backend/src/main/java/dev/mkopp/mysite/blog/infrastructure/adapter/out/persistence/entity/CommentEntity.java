@@ -30,6 +30,14 @@ public class CommentEntity extends AbstractAuditingEntity<UUID> {
     
     @Column(nullable = false, columnDefinition = "TEXT")
     private String content;
+    
+    // Maintained by atomic UPDATEs in CommentJpaRepository, never written through the entity,
+    // so saving a stale entity cannot overwrite a concurrent increment.
+    @Column(name = "reply_count", insertable = false, updatable = false)
+    private long replyCount;
+    
+    @Column(name = "like_count", insertable = false, updatable = false)
+    private long likeCount;
 
     @Override
     public UUID getId() {
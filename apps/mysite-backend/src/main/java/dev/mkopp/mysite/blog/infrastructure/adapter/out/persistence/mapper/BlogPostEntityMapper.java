@@ -3,15 +3,23 @@ package dev.mkopp.mysite.blog.infrastructure.adapter.out.persistence.mapper;
 import dev.mkopp.mysite.blog.application.mapper.AuthorMapper;
 import dev.mkopp.mysite.blog.domain.model.Author;
 import dev.mkopp.mysite.blog.domain.model.BlogPost;
+import dev.mkopp.mysite.blog.domain.model.BlogPostSummary;
 import dev.mkopp.mysite.blog.infrastructure.adapter.out.persistence.TagJpaRepository;
 import dev.mkopp.mysite.blog.infrastructure.adapter.out.persistence.entity.BlogPostEntity;
 import dev.mkopp.mysite.blog.infrastructure.adapter.out.persistence.entity.TagEntity;
+import dev.mkopp.mysite.blog.infrastructure.adapter.out.persistence.projection.BlogPostSummaryProjection;
 import dev.mkopp.mysite.user.api.UserApi;
+import dev.mkopp.mysite.user.api.dto.UserDto;
 import org.mapstruct.*;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.UUID;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Mapper(
     componentModel = "spring",
@@ -42,8 +50,52 @@ public abstract class BlogPostEntityMapper {
                 .orElse(null);
         }
         
-        Set<String> tags = mapTagsToStrings(entity.getTags());
-        
+        return toDomain(entity, author);
+    }
+    
+    /**
+     * Maps a whole page of entities, resolving all distinct authors with a single call to the user module.
+     */
+    public List<BlogPost> toDomain(List<BlogPostEntity> entities) {
+        Map<UUID, Author> authors = resolveAuthors(entities.stream().map(BlogPostEntity::getAuthorId));
+        return entities.stream()
+            .map(entity -> toDomain(entity, authors.get(entity.getAuthorId())))
+            .toList();
+    }
+    
+    /**
+     * Maps a whole page of summary projections, resolving all distinct authors with a single call to the user module.
+     */
+    public List<BlogPostSummary> toSummaries(List<BlogPostSummaryProjection> projections, Map<UUID, Set<String>> tagsByPostId) {
+        Map<UUID, Author> authors = resolveAuthors(projections.stream().map(BlogPostSummaryProjection::authorId));
+        return projections.stream()
+            .map(projection -> BlogPostSummary.builder()
+                .id(projection.id())
+                .slug(projection.slug())
+                .title(projection.title())
+                .description(projection.description())
+                .author(authors.get(projection.authorId()))
+                .publishedAt(projection.publishedAt())
+                .thumbnailUrl(projection.thumbnailUrl())
+                .type(projection.type())
+                .externalUrl(projection.externalUrl())
+                .tags(tagsByPostId.getOrDefault(projection.id(), Set.of()))
+                .build())
+            .toList();
+    }
+    
+    @Mapping(target = "authorId", source = "domain.author.id")
+    @Mapping(target = "tags", ignore = true)
+    public abstract BlogPostEntity toEntity(BlogPost domain);
+    
+    @AfterMapping
+    protected void mapTagsToEntity(@MappingTarget BlogPostEntity entity, BlogPost domain) {
+        if (domain.getTags() != null && !domain.getTags().isEmpty()) {
+            entity.setTags(tagJpaRepository.findOrCreateAllByName(domain.getTags()));
+        }
+    }
+    
+    private BlogPost toDomain(BlogPostEntity entity, Author author) {
         return BlogPost.builder()
             .id(entity.getId())
             .slug(entity.getSlug())
@@ -55,22 +107,20 @@ public abstract class BlogPostEntityMapper {
             .thumbnailUrl(entity.getThumbnailUrl())
             .type(entity.getType())
             .externalUrl(entity.getExternalUrl())
-            .tags(tags)
+            .updatedAt(entity.getUpdatedAt())
+            .tags(mapTagsToStrings(entity.getTags()))
             .build();
     }
     
-    @Mapping(target = "authorId", source = "domain.author.id")
-    @Mapping(target = "tags", ignore = true)
-    public abstract BlogPostEntity toEntity(BlogPost domain);
-    
-    @AfterMapping
-    protected void mapTagsToEntity(@MappingTarget BlogPostEntity entity, BlogPost domain) {
-        if (domain.getTags() != null && !domain.getTags().isEmpty()) {
-            entity.setTags(domain.getTags().stream()
-                .map(name -> tagJpaRepository.findByName(name)
-                    .orElseGet(() -> tagJpaRepository.save(TagEntity.builder().name(name).build())))
-                .collect(Collectors.toSet()));
+    private Map<UUID, Author> resolveAuthors(Stream<UUID> authorIds) {
+        Set<UUID> distinctIds = authorIds
+            .filter(Objects::nonNull)
+            .collect(Collectors.toSet());
+        if (distinctIds.isEmpty()) {
+            return Map.of();
         }
+        return userApi.getUsersByIds(distinctIds).stream()
+            .collect(Collectors.toMap(UserDto::id, authorMapper::toAuthor));
     }
     
     private Set<String> mapTagsToStrings(Set<TagEntity> tags) {
@@ -22,6 +22,8 @@ public class CommentEntityMapper {
             .content(entity.getContent())
             .createdAt(entity.getCreatedAt())
             .updatedAt(entity.getUpdatedAt())
+            .replyCount(entity.getReplyCount())
+            .likeCount(entity.getLikeCount())
             .replies(new ArrayList<>())
             .build();
     }
@@ -37,6 +39,8 @@ public class CommentEntityMapper {
             .userId(domain.getUserId())
             .parentCommentId(domain.getParentCommentId())
             .content(domain.getContent())
+            .replyCount(domain.getReplyCount())
+            .likeCount(domain.getLikeCount())
             .build();
     }
 }
@@ -0,0 +1,12 @@
+package dev.mkopp.mysite.blog.infrastructure.adapter.out.persistence.projection;
+
+import java.util.UUID;
+
+/**
+ * Row of the ranked full-text search query.
+ */
+public interface BlogPostSearchHitProjection {
+    UUID getId();
+    Double getRank();
+    String getSnippet();
+}
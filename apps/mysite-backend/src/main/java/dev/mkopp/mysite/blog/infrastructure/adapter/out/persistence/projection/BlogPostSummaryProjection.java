@@ -0,0 +1,21 @@
+package dev.mkopp.mysite.blog.infrastructure.adapter.out.persistence.projection;
+
+import dev.mkopp.mysite.blog.domain.model.BlogPostType;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * DTO projection of {@code blog.blog_posts} without the {@code content} column.
+ */
+public record BlogPostSummaryProjection(
+    UUID id,
+    String slug,
+    String title,
+    String description,
+    UUID authorId,
+    Instant publishedAt,
+    String thumbnailUrl,
+    BlogPostType type,
+    String externalUrl
+) {}
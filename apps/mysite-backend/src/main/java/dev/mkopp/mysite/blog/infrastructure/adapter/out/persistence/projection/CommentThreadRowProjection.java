@@ -0,0 +1,19 @@
+package dev.mkopp.mysite.blog.infrastructure.adapter.out.persistence.projection;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Row of the recursive comment thread query; {@code depth} is 0 for top-level comments.
+ */
+public interface CommentThreadRowProjection {
+    UUID getId();
+    UUID getUserId();
+    UUID getParentCommentId();
+    String getContent();
+    Instant getCreatedAt();
+    Instant getUpdatedAt();
+    Long getReplyCount();
+    Long getLikeCount();
+    Integer getDepth();
+}
@@ -0,0 +1,9 @@
+package dev.mkopp.mysite.blog.infrastructure.adapter.out.persistence.projection;
+
+/**
+ * Result row of the post like toggle: the new state and the net change of the like rows.
+ */
+public interface LikeDeltaProjection {
+    Boolean getLiked();
+    Integer getDelta();
+}
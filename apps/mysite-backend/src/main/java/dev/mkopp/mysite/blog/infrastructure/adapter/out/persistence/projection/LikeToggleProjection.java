@@ -0,0 +1,9 @@
+package dev.mkopp.mysite.blog.infrastructure.adapter.out.persistence.projection;
+
+/**
+ * Result row of the single-statement like toggles.
+ */
+public interface LikeToggleProjection {
+    Boolean getLiked();
+    Long getLikeCount();
+}
@@ -0,0 +1,11 @@
+package dev.mkopp.mysite.blog.infrastructure.adapter.out.persistence.projection;
+
+import java.util.UUID;
+
+/**
+ * A per-post count of a grouped query.
+ */
+public record PostCountProjection(
+    UUID postId,
+    Long count
+) {}
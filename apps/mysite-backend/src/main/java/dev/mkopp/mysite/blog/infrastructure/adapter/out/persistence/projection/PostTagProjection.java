@@ -0,0 +1,11 @@
+package dev.mkopp.mysite.blog.infrastructure.adapter.out.persistence.projection;
+
+import java.util.UUID;
+
+/**
+ * A single (post, tag name) pair of the {@code blog.blog_post_tags} join table.
+ */
+public record PostTagProjection(
+    UUID postId,
+    String tagName
+) {}
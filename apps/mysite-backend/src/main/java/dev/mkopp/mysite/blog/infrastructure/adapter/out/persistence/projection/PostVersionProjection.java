@@ -0,0 +1,12 @@
+package dev.mkopp.mysite.blog.infrastructure.adapter.out.persistence.projection;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Identity and last modification time of a single blog post.
+ */
+public record PostVersionProjection(
+    UUID id,
+    Instant updatedAt
+) {}
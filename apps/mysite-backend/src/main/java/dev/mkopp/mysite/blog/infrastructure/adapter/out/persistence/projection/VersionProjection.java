@@ -0,0 +1,11 @@
+package dev.mkopp.mysite.blog.infrastructure.adapter.out.persistence.projection;
+
+import java.time.Instant;
+
+/**
+ * Row count and latest modification time of a set of rows.
+ */
+public record VersionProjection(
+    Long count,
+    Instant lastModified
+) {}
@@ -1,8 +1,12 @@
 package dev.mkopp.mysite.blog.infrastructure.adapter.out.persistence.repository;
 
 import dev.mkopp.mysite.blog.infrastructure.adapter.out.persistence.entity.CommentLikeEntity;
+import dev.mkopp.mysite.blog.infrastructure.adapter.out.persistence.projection.LikeToggleProjection;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -10,4 +14,31 @@ public interface CommentLikeJpaRepository extends JpaRepository<CommentLikeEntit
     Optional<CommentLikeEntity> findByCommentIdAndUserId(UUID commentId, UUID userId);
     boolean existsByCommentIdAndUserId(UUID commentId, UUID userId);
     long countByCommentId(UUID commentId);
+    
+    @Query("SELECT cl.commentId FROM CommentLikeEntity cl WHERE cl.userId = :userId AND cl.commentId IN :commentIds")
+    List<UUID> findLikedCommentIds(UUID userId, Collection<UUID> commentIds);
+    
+    // Same toggle as for post likes, but the denormalized comments.like_count is adjusted in the
+    // same statement. Its row lock also serializes concurrent toggles on one comment.
+    @Query(value = """
+        WITH removed AS (
+            DELETE FROM blog.comment_likes
+            WHERE comment_id = :commentId AND user_id = :userId
+            RETURNING id
+        ), added AS (
+            INSERT INTO blog.comment_likes (id, comment_id, user_id, created_at, updated_at)
+            SELECT gen_random_uuid(), :commentId, :userId, now(), now()
+            WHERE NOT EXISTS (SELECT 1 FROM removed)
+            ON CONFLICT (comment_id, user_id) DO NOTHING
+            RETURNING id
+        ), counted AS (
+            UPDATE blog.comments
+            SET like_count = GREATEST(like_count + (SELECT count(*) FROM added) - (SELECT count(*) FROM removed), 0)
+            WHERE id = :commentId
+            RETURNING like_count
+        )
+        SELECT NOT EXISTS (SELECT 1 FROM removed) AS liked,
+               (SELECT like_count FROM counted) AS likeCount
+        """, nativeQuery = true)
+    LikeToggleProjection toggle(UUID commentId, UUID userId);
 }
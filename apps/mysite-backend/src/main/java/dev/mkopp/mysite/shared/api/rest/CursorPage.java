@@ -0,0 +1,25 @@
+package dev.mkopp.mysite.shared.api.rest;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import org.springframework.data.domain.Window;
+
+import java.util.List;
+import java.util.function.Function;
+
+@Schema(description = "Cursor-based page of results")
+public record CursorPage<T>(
+    @Schema(description = "Items of this page") List<T> content,
+    @Schema(description = "Opaque cursor of the next page, null on the last page") String nextCursor,
+    @Schema(description = "Whether a next page exists") boolean hasNext
+) {
+    
+    public static <S, T> CursorPage<T> of(Window<S> window, Function<? super S, ? extends T> mapper) {
+        List<T> content = window.getContent().stream()
+            .<T>map(mapper)
+            .toList();
+        String nextCursor = window.hasNext() && !window.isEmpty()
+            ? ScrollCursors.encode(window.positionAt(window.size() - 1))
+            : null;
+        return new CursorPage<>(content, nextCursor, window.hasNext());
+    }
+}
@@ -0,0 +1,55 @@
+package dev.mkopp.mysite.shared.api.rest;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.stream.Collectors;
+
+/**
+ * Builds strong entity tags from the values that determine a representation,
+ * e.g. an id and its last modification time plus any request parameters shaping the response.
+ */
+public final class ETags {
+    
+    private ETags() {
+    }
+    
+    public static String strong(Object... parts) {
+        String source = Arrays.stream(parts)
+            .map(String::valueOf)
+            .collect(Collectors.joining("|"));
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(source.getBytes(StandardCharsets.UTF_8));
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+    
+    /**
+     * 200 response carrying the entity tag. {@code no-cache} lets clients and CDNs store the response
+     * but makes them revalidate with {@code If-None-Match}; without an explicit Cache-Control header
+     * Spring Security would mark the response as {@code no-store}.
+     */
+    public static <T> ResponseEntity<T> ok(String etag, T body) {
+        return ResponseEntity.ok()
+            .eTag(etag)
+            .cacheControl(CacheControl.noCache())
+            .body(body);
+    }
+    
+    /**
+     * Like {@link #ok(String, Object)} for responses that depend on the authenticated viewer.
+     */
+    public static <T> ResponseEntity<T> okPrivate(String etag, T body) {
+        return ResponseEntity.ok()
+            .eTag(etag)
+            .cacheControl(CacheControl.noCache().cachePrivate())
+            .body(body);
+    }
+}
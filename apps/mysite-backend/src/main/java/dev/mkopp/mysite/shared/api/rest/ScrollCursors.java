@@ -0,0 +1,79 @@
+package dev.mkopp.mysite.shared.api.rest;
+
+import dev.mkopp.mysite.shared.api.exception.BusinessException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.UUID;
+
+/**
+ * Encodes keyset scroll positions as opaque, URL-safe cursor strings and back.
+ * Supported key values are {@link Instant} and {@link UUID}, which covers all keyset orderings we expose.
+ */
+public final class ScrollCursors {
+    
+    private static final String ENTRY_SEPARATOR = ";";
+    private static final String PART_SEPARATOR = ":";
+    
+    private ScrollCursors() {
+    }
+    
+    public static String encode(ScrollPosition position) {
+        if (!(position instanceof KeysetScrollPosition keyset) || keyset.isInitial()) {
+            return null;
+        }
+        
+        StringJoiner joiner = new StringJoiner(ENTRY_SEPARATOR);
+        keyset.getKeys().forEach((key, value) -> joiner.add(key + PART_SEPARATOR + encodeValue(value)));
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString(joiner.toString().getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * Decodes a cursor into a forward keyset position; {@code null} or blank yields the initial position.
+     */
+    public static ScrollPosition decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+        
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            Map<String, Object> keys = new LinkedHashMap<>();
+            for (String entry : decoded.split(ENTRY_SEPARATOR)) {
+                String[] parts = entry.split(PART_SEPARATOR, 3);
+                keys.put(parts[0], decodeValue(parts[1], parts[2]));
+            }
+            return ScrollPosition.forward(keys);
+        } catch (RuntimeException e) {
+            throw new BusinessException("Invalid cursor: " + cursor, e);
+        }
+    }
+    
+    private static String encodeValue(Object value) {
+        if (value instanceof Instant instant) {
+            return "t" + PART_SEPARATOR + instant.getEpochSecond() + "." + instant.getNano();
+        }
+        if (value instanceof UUID uuid) {
+            return "u" + PART_SEPARATOR + uuid;
+        }
+        throw new IllegalArgumentException("Unsupported cursor value type: " + value.getClass().getName());
+    }
+    
+    private static Object decodeValue(String type, String value) {
+        return switch (type) {
+            case "t" -> {
+                String[] parts = value.split("\\.", 2);
+                yield Instant.ofEpochSecond(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+            }
+            case "u" -> UUID.fromString(value);
+            default -> throw new IllegalArgumentException("Unsupported cursor value type: " + type);
+        };
+    }
+}
@@ -0,0 +1,2 @@
+@org.springframework.modulith.NamedInterface("rest")
+package dev.mkopp.mysite.shared.api.rest;
@@ -0,0 +1,96 @@
+package dev.mkopp.mysite.shared.authentication.infrastructure.primary;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+
+/**
+ * {@link JwtDecoder} that remembers successfully validated tokens, so a client repeating the same
+ * bearer token skips the signature check and claim validation until the token expires.
+ * <p>
+ * Entries are keyed by the SHA-256 of the raw token and live until the earlier of the token's
+ * {@code exp} and the configured maximum age. Rejected tokens are never cached.
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+
+    private final JwtDecoder delegate;
+    private final Clock clock;
+    private final Cache<String, Jwt> validated;
+
+    public CachingJwtDecoder(JwtDecoder delegate, long maximumSize, Duration maximumAge) {
+        this(delegate, maximumSize, maximumAge, Clock.systemUTC());
+    }
+
+    CachingJwtDecoder(JwtDecoder delegate, long maximumSize, Duration maximumAge, Clock clock) {
+        this.delegate = delegate;
+        this.clock = clock;
+        this.validated = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new UntilTokenExpiry(maximumAge, clock))
+                .build();
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        String key = sha256(token);
+        Jwt cached = validated.getIfPresent(key);
+        // Caffeine evicts lazily, the expiry is checked again on every hit
+        if (cached != null && !isExpired(cached)) {
+            return cached;
+        }
+
+        Jwt jwt = delegate.decode(token);
+        if (!isExpired(jwt)) {
+            validated.put(key, jwt);
+        }
+        return jwt;
+    }
+
+    private boolean isExpired(Jwt jwt) {
+        return jwt.getExpiresAt() == null || !clock.instant().isBefore(jwt.getExpiresAt());
+    }
+
+    static String sha256(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Expires each entry at the token's {@code exp}, capped by the maximum age.
+     */
+    private record UntilTokenExpiry(Duration maximumAge, Clock clock) implements Expiry<Object, Jwt> {
+
+        @Override
+        public long expireAfterCreate(Object key, Jwt jwt, long currentTime) {
+            Instant expiresAt = jwt.getExpiresAt();
+            Duration untilExpiry = expiresAt != null ? Duration.between(clock.instant(), expiresAt) : Duration.ZERO;
+            Duration lifetime = untilExpiry.compareTo(maximumAge) < 0 ? untilExpiry : maximumAge;
+            return Math.max(0, lifetime.toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(Object key, Jwt jwt, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, jwt, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Object key, Jwt jwt, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
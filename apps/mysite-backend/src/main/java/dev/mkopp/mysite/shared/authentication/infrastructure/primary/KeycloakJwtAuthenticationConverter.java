@@ -1,5 +1,7 @@
 package dev.mkopp.mysite.shared.authentication.infrastructure.primary;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import org.springframework.core.convert.converter.Converter;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.AbstractAuthenticationToken;
@@ -11,20 +13,45 @@ import org.springframework.security.oauth2.server.resource.authentication.JwtGra
 
 import dev.mkopp.mysite.shared.authentication.application.AuthenticatedUser;
 
+import java.time.Duration;
 import java.util.Collection;
+import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 public class KeycloakJwtAuthenticationConverter implements Converter<Jwt, AbstractAuthenticationToken> {
 
+    private static final long DEFAULT_MAXIMUM_SIZE = 10_000;
+    private static final Duration DEFAULT_MAXIMUM_AGE = Duration.ofMinutes(5);
+
+    private final JwtGrantedAuthoritiesConverter scopeAuthoritiesConverter = new JwtGrantedAuthoritiesConverter();
+    // The token itself is created per request because the provider sets request details on it
+    private final Cache<String, Set<GrantedAuthority>> authoritiesByToken;
+
+    public KeycloakJwtAuthenticationConverter() {
+        this(DEFAULT_MAXIMUM_SIZE, DEFAULT_MAXIMUM_AGE);
+    }
+
+    public KeycloakJwtAuthenticationConverter(long maximumSize, Duration maximumAge) {
+        this.authoritiesByToken = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(maximumAge)
+                .build();
+    }
+
     @Override
     public AbstractAuthenticationToken convert(@NonNull Jwt source) {
-        Collection<? extends GrantedAuthority> jwtAuthorities = new JwtGrantedAuthoritiesConverter().convert(source);
-        return new JwtAuthenticationToken(source,
-                Stream.concat(
+        Set<GrantedAuthority> authorities = authoritiesByToken.get(
+                CachingJwtDecoder.sha256(source.getTokenValue()), key -> extractAuthorities(source));
+        return new JwtAuthenticationToken(source, authorities);
+    }
+
+    private Set<GrantedAuthority> extractAuthorities(Jwt jwt) {
+        Collection<GrantedAuthority> jwtAuthorities = scopeAuthoritiesConverter.convert(jwt);
+        return Stream.concat(
                         jwtAuthorities != null ? jwtAuthorities.stream() : Stream.empty(),
-                        extractResourceRoles(source).stream())
-                        .collect(Collectors.toSet()));
+                        extractResourceRoles(jwt).stream())
+                .collect(Collectors.toUnmodifiableSet());
     }
 
     private Collection<? extends GrantedAuthority> extractResourceRoles(Jwt jwt) {
@@ -0,0 +1,224 @@
+package dev.mkopp.mysite.shared.authentication.infrastructure.primary;
+
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.text.ParseException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * JWKS source that keeps Keycloak off the request path.
+ * <p>
+ * Keys are fetched in the background every refresh interval, so requests normally never wait for
+ * Keycloak. The last good key set can be written to a local file and read back on startup, so a cold
+ * start can validate tokens before Keycloak answers. The file is a trust anchor and must live in a
+ * directory only the application can write to. When refreshing fails, the previous keys keep
+ * being served until they are older than refresh interval plus grace period; only after that are
+ * tokens rejected. A token signed with an unknown key id triggers one synchronous refresh, at most
+ * once per minimum refresh gap, to pick up rotated keys. Without usable keys, one request per gap
+ * tries Keycloak and all others are rejected immediately instead of queueing behind it.
+ */
+@Slf4j
+public class RefreshAheadJwkSource implements JWKSource<SecurityContext>, AutoCloseable {
+
+    private static final Duration MIN_REFRESH_GAP = Duration.ofSeconds(30);
+
+    private final URI jwkSetUri;
+    private final Path cacheFile;
+    private final Duration refreshInterval;
+    private final Duration gracePeriod;
+    private final Duration timeout;
+    private final Clock clock;
+    private final HttpClient httpClient;
+    private final AtomicReference<KeySet> current = new AtomicReference<>();
+    private final ScheduledExecutorService refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "jwks-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicReference<Instant> lastAttempt = new AtomicReference<>(Instant.EPOCH);
+
+    public RefreshAheadJwkSource(URI jwkSetUri, Path cacheFile, Duration refreshInterval, Duration gracePeriod,
+            Duration timeout) {
+        this(jwkSetUri, cacheFile, refreshInterval, gracePeriod, timeout, Clock.systemUTC());
+    }
+
+    RefreshAheadJwkSource(URI jwkSetUri, Path cacheFile, Duration refreshInterval, Duration gracePeriod,
+            Duration timeout, Clock clock) {
+        this.jwkSetUri = jwkSetUri;
+        this.cacheFile = cacheFile;
+        this.refreshInterval = refreshInterval;
+        this.gracePeriod = gracePeriod;
+        this.timeout = timeout;
+        this.clock = clock;
+        this.httpClient = HttpClient.newBuilder().connectTimeout(timeout).build();
+    }
+
+    /**
+     * Loads the persisted key set and starts refreshing in the background, the first refresh runs immediately.
+     */
+    public void start() {
+        current.set(readCacheFile());
+        long periodMillis = refreshInterval.toMillis();
+        refresher.scheduleWithFixedDelay(this::refreshQuietly, 0, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void close() {
+        refresher.shutdownNow();
+    }
+
+    @Override
+    public List<JWK> get(JWKSelector jwkSelector, SecurityContext context) throws KeySourceException {
+        KeySet keySet = current.get();
+        if (keySet == null || isBeyondGrace(keySet)) {
+            keySet = refreshWithoutUsableKeys();
+        }
+
+        List<JWK> keys = jwkSelector.select(keySet.jwkSet());
+        if (keys.isEmpty() && isRefreshDue(lastAttempt.get())) {
+            // unknown kid, Keycloak may have rotated its keys since the last refresh
+            keys = jwkSelector.select(refreshNow().jwkSet());
+        }
+        return keys;
+    }
+
+    void refresh() throws IOException {
+        lastAttempt.set(clock.instant());
+        HttpRequest request = HttpRequest.newBuilder(jwkSetUri)
+                .timeout(timeout)
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+        HttpResponse<String> response;
+        try {
+            response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while fetching JWKS", e);
+        }
+        if (response.statusCode() != 200) {
+            throw new IOException("JWKS endpoint answered with status " + response.statusCode());
+        }
+
+        JWKSet jwkSet = parse(response.body());
+        if (jwkSet.getKeys().isEmpty()) {
+            throw new IOException("JWKS endpoint returned no keys");
+        }
+        current.set(new KeySet(jwkSet, clock.instant()));
+        writeCacheFile(jwkSet);
+    }
+
+    private synchronized KeySet refreshNow() throws KeySourceException {
+        KeySet before = current.get();
+        try {
+            refresh();
+            return current.get();
+        } catch (IOException e) {
+            if (before != null && !isBeyondGrace(before)) {
+                log.warn("Failed to refresh JWKS from {}, keeping keys fetched at {}", jwkSetUri, before.fetchedAt(), e);
+                return before;
+            }
+            throw new KeySourceException("No usable JWKS: " + e.getMessage(), e);
+        }
+    }
+
+    private KeySet refreshWithoutUsableKeys() throws KeySourceException {
+        Instant previous = lastAttempt.get();
+        // only the request that claims the attempt calls Keycloak, the others fail fast until the gap has passed
+        if (isRefreshDue(previous) && lastAttempt.compareAndSet(previous, clock.instant())) {
+            return refreshNow();
+        }
+        KeySet keySet = current.get();
+        if (keySet != null && !isBeyondGrace(keySet)) {
+            return keySet;
+        }
+        throw new KeySourceException("No usable JWKS, last refresh attempt at " + lastAttempt.get());
+    }
+
+    private boolean isRefreshDue(Instant previousAttempt) {
+        return Duration.between(previousAttempt, clock.instant()).compareTo(MIN_REFRESH_GAP) >= 0;
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (IOException | RuntimeException e) {
+            KeySet keySet = current.get();
+            log.warn("Background JWKS refresh from {} failed, serving keys fetched at {}", jwkSetUri,
+                    keySet != null ? keySet.fetchedAt() : "never", e);
+        }
+    }
+
+    private boolean isBeyondGrace(KeySet keySet) {
+        return keySet.fetchedAt().plus(refreshInterval).plus(gracePeriod).isBefore(clock.instant());
+    }
+
+    private KeySet readCacheFile() {
+        if (cacheFile == null || !Files.isRegularFile(cacheFile)) {
+            return null;
+        }
+        try {
+            JWKSet jwkSet = parse(Files.readString(cacheFile, StandardCharsets.UTF_8));
+            Instant fetchedAt = Files.getLastModifiedTime(cacheFile).toInstant();
+            if (fetchedAt.isAfter(clock.instant())) {
+                // a future time would keep the keys inside the grace period forever
+                log.warn("Ignoring JWKS cache file {} modified in the future at {}", cacheFile, fetchedAt);
+                return null;
+            }
+            log.info("Loaded {} JWKS keys from {}, fetched at {}", jwkSet.getKeys().size(), cacheFile, fetchedAt);
+            return new KeySet(jwkSet, fetchedAt);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring unreadable JWKS cache file {}", cacheFile, e);
+            return null;
+        }
+    }
+
+    private void writeCacheFile(JWKSet jwkSet) {
+        if (cacheFile == null) {
+            return;
+        }
+        try {
+            // only public keys are written; a reader never sees a half-written file
+            Path temp = cacheFile.resolveSibling(cacheFile.getFileName() + ".tmp");
+            Files.writeString(temp, jwkSet.toPublicJWKSet().toString(), StandardCharsets.UTF_8);
+            Files.setLastModifiedTime(temp, FileTime.from(clock.instant()));
+            Files.move(temp, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Failed to persist JWKS to {}", cacheFile, e);
+        }
+    }
+
+    private static JWKSet parse(String json) throws IOException {
+        try {
+            return JWKSet.parse(json);
+        } catch (ParseException e) {
+            throw new IOException("Invalid JWKS document", e);
+        }
+    }
+
+    private record KeySet(JWKSet jwkSet, Instant fetchedAt) {
+    }
+}
@@ -0,0 +1,9 @@
+package dev.mkopp.mysite.shared.config.crosscutting;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+public class CachingConfiguration {
+}
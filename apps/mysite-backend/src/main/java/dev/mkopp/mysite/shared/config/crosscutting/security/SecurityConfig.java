@@ -1,6 +1,12 @@
 package dev.mkopp.mysite.shared.config.crosscutting.security;
 
 import org.springframework.boot.actuate.autoconfigure.observation.ObservationProperties.Http;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.oauth2.resource.OAuth2ResourceServerProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.convert.converter.Converter;
@@ -11,9 +17,20 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.security.web.SecurityFilterChain;
 
+import dev.mkopp.mysite.shared.authentication.infrastructure.primary.CachingJwtDecoder;
 import dev.mkopp.mysite.shared.authentication.infrastructure.primary.KeycloakJwtAuthenticationConverter;
+import dev.mkopp.mysite.shared.authentication.infrastructure.primary.RefreshAheadJwkSource;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Configuration
 @EnableWebSecurity
@@ -51,6 +68,10 @@ public class SecurityConfig {
                         "/v1/comments/**")
                         .permitAll()
 
+                        // Batched card stats are a read, POST only carries the ID list
+                        .requestMatchers(HttpMethod.POST, "/v1/blog/stats")
+                        .permitAll()
+
                         // Allow authenticated access to comments and likes of posts
                         .requestMatchers("/v1/blog/{blogPostId}/**",
                                 "/v1/comments/**"
@@ -81,8 +102,47 @@ public class SecurityConfig {
     }
 
     @Bean
-    public Converter<Jwt, AbstractAuthenticationToken> jwtAuthenticationConverter() {
+    public Converter<Jwt, AbstractAuthenticationToken> jwtAuthenticationConverter(
+            @Value("${application.security.jwt-cache.maximum-size:10000}") long maximumSize,
+            @Value("${application.security.jwt-cache.maximum-age:PT5M}") Duration maximumAge) {
         // This is critical for extracting roles from the Keycloak JWT
-        return new KeycloakJwtAuthenticationConverter();
+        return new KeycloakJwtAuthenticationConverter(maximumSize, maximumAge);
+    }
+
+    @Bean
+    public RefreshAheadJwkSource jwkSource(OAuth2ResourceServerProperties properties,
+            @Value("${application.security.jwks.cache-file:}") String cacheFile,
+            @Value("${application.security.jwks.refresh-interval:PT5M}") Duration refreshInterval,
+            @Value("${application.security.jwks.grace-period:PT1H}") Duration gracePeriod,
+            @Value("${application.security.jwks.timeout:PT3S}") Duration timeout) {
+        // Keycloak restarts and slow key fetches must not turn into failed requests
+        RefreshAheadJwkSource jwkSource = new RefreshAheadJwkSource(
+                URI.create(properties.getJwt().getJwkSetUri()),
+                cacheFile.isBlank() ? null : Path.of(cacheFile),
+                refreshInterval, gracePeriod, timeout);
+        jwkSource.start();
+        return jwkSource;
+    }
+
+    @Bean
+    public JwtDecoder jwtDecoder(OAuth2ResourceServerProperties properties, RefreshAheadJwkSource jwkSource,
+            @Value("${application.security.jwt-cache.maximum-size:10000}") long maximumSize,
+            @Value("${application.security.jwt-cache.maximum-age:PT5M}") Duration maximumAge) {
+        // Validates like the decoder Spring Boot configures from spring.security.oauth2.resourceserver.jwt,
+        // but takes keys from the refresh-ahead source and skips the signature check for repeated tokens
+        OAuth2ResourceServerProperties.Jwt jwt = properties.getJwt();
+        Set<JWSAlgorithm> algorithms = jwt.getJwsAlgorithms().stream()
+                .map(JWSAlgorithm::parse)
+                .collect(Collectors.toSet());
+        DefaultJWTProcessor<SecurityContext> jwtProcessor = new DefaultJWTProcessor<>();
+        jwtProcessor.setJWSKeySelector(new JWSVerificationKeySelector<>(algorithms, jwkSource));
+        // claims are checked by the Spring validators below
+        jwtProcessor.setJWTClaimsSetVerifier((claims, context) -> {
+        });
+        NimbusJwtDecoder decoder = new NimbusJwtDecoder(jwtProcessor);
+        decoder.setJwtValidator(jwt.getIssuerUri() != null
+                ? JwtValidators.createDefaultWithIssuer(jwt.getIssuerUri())
+                : JwtValidators.createDefault());
+        return new CachingJwtDecoder(decoder, maximumSize, maximumAge);
     }
 }
@@ -11,10 +11,12 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.method.annotation.HandlerMethodValidationException;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 import jakarta.validation.ConstraintViolationException;
@@ -123,6 +125,44 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
     }
 
+    @ExceptionHandler(HandlerMethodValidationException.class)
+    public ResponseEntity<ApiError> handleMethodValidation(HandlerMethodValidationException ex, WebRequest request) {
+        log.warn("Parameter validation error: {}", ex.getMessage());
+
+        ApiError error = new ApiError(
+            "VALIDATION_ERROR",
+            "The request contains invalid values",
+            HttpStatus.BAD_REQUEST
+        );
+
+        ex.getParameterValidationResults().forEach(result -> {
+            String field = result.getMethodParameter().getParameterName();
+            result.getResolvableErrors().forEach(e -> error.addValidationError(field, e.getDefaultMessage()));
+        });
+
+        String uri = ((ServletWebRequest) request).getRequest().getRequestURI();
+        error.setInstance(URI.create(uri));
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
+
+    @ExceptionHandler(MissingServletRequestParameterException.class)
+    public ResponseEntity<ApiError> handleMissingParameter(MissingServletRequestParameterException ex, WebRequest request) {
+        log.warn("Missing parameter: {}", ex.getMessage());
+
+        ApiError error = new ApiError(
+            "INVALID_PARAMETER",
+            "Invalid request parameter",
+            HttpStatus.BAD_REQUEST
+        );
+        error.setDetail(String.format("Parameter '%s' is required", ex.getParameterName()));
+
+        String uri = ((ServletWebRequest) request).getRequest().getRequestURI();
+        error.setInstance(URI.create(uri));
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
+
     @ExceptionHandler(MethodArgumentTypeMismatchException.class)
     public ResponseEntity<ApiError> handleTypeMismatch(MethodArgumentTypeMismatchException ex, WebRequest request) {
         log.warn("Type mismatch: {}", ex.getMessage());
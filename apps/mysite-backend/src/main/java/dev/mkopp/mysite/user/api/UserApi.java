@@ -2,11 +2,14 @@ package dev.mkopp.mysite.user.api;
 
 import dev.mkopp.mysite.user.api.dto.UserDto;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 public interface UserApi {
     Optional<UserDto> getUserById(UUID userId);
     Optional<UserDto> getUserByUsername(String username);
+    List<UserDto> getUsersByIds(Collection<UUID> userIds);
     UserDto findOrCreateUser(UUID keycloakId, String username, String email, String firstName, String lastName);
 }
@@ -2,12 +2,21 @@ package dev.mkopp.mysite.user.application.port.out;
 
 import dev.mkopp.mysite.user.domain.model.User;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 public interface UserRepository {
     User save(User user);
+    
+    /**
+     * Inserts the user unless the id, username or email is already taken; returns whether a row was inserted.
+     */
+    boolean insertIfAbsent(User user);
+    
     Optional<User> findById(UUID id);
+    List<User> findAllByIds(Collection<UUID> ids);
     Optional<User> findByUsername(String username);
     Optional<User> findByEmail(String email);
     boolean existsByUsername(String username);
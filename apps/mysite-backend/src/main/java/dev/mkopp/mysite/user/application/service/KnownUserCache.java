@@ -0,0 +1,45 @@
+package dev.mkopp.mysite.user.application.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dev.mkopp.mysite.user.domain.model.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Users that are known to be provisioned, so authenticated requests do not have to check
+ * {@code app_user.users} every time. An entry only matches while the token claims it was created
+ * from are unchanged; different claims fall through to the database.
+ */
+@Component
+class KnownUserCache {
+    
+    private final Cache<UUID, KnownUser> knownUsers;
+    
+    KnownUserCache(@Value("${application.user.known-users.maximum-size:10000}") long maximumSize,
+                   @Value("${application.user.known-users.ttl:PT30M}") Duration ttl) {
+        this.knownUsers = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(ttl)
+            .build();
+    }
+    
+    User get(UUID userId, int claimsHash) {
+        KnownUser known = knownUsers.getIfPresent(userId);
+        return known != null && known.claimsHash() == claimsHash ? known.user() : null;
+    }
+    
+    void put(UUID userId, int claimsHash, User user) {
+        knownUsers.put(userId, new KnownUser(user, claimsHash));
+    }
+    
+    static int claimsHash(String username, String email, String firstName, String lastName) {
+        return Objects.hash(username, email, firstName, lastName);
+    }
+    
+    private record KnownUser(User user, int claimsHash) {}
+}
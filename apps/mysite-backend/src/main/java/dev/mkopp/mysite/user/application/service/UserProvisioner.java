@@ -0,0 +1,38 @@
+package dev.mkopp.mysite.user.application.service;
+
+import dev.mkopp.mysite.shared.api.exception.BusinessException;
+import dev.mkopp.mysite.user.application.mapper.UserEventMapper;
+import dev.mkopp.mysite.user.application.port.out.UserRepository;
+import dev.mkopp.mysite.user.domain.model.User;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Creates the local user of a Keycloak account on first sight. Split from {@link UserService}
+ * so the service can answer cache hits without opening a transaction.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+class UserProvisioner {
+    
+    private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final UserEventMapper userEventMapper;
+    
+    @Transactional
+    User provision(User user) {
+        // concurrent first logins no longer race on the unique constraints, the loser inserts nothing
+        if (userRepository.insertIfAbsent(user)) {
+            log.info("Created new user from Keycloak JWT: {}", user.getUsername());
+            eventPublisher.publishEvent(userEventMapper.toCreatedEvent(user));
+        }
+        
+        return userRepository.findById(user.getId())
+            .orElseThrow(() -> new BusinessException(
+                "Username or email of user " + user.getId() + " already belongs to another account"));
+    }
+}
@@ -3,17 +3,18 @@ package dev.mkopp.mysite.user.application.service;
 import dev.mkopp.mysite.user.api.UserApi;
 import dev.mkopp.mysite.user.api.dto.UserDto;
 import dev.mkopp.mysite.user.application.mapper.UserDtoMapper;
-import dev.mkopp.mysite.user.application.mapper.UserEventMapper;
 import dev.mkopp.mysite.user.application.port.in.FindOrCreateUserUseCase;
 import dev.mkopp.mysite.user.application.port.in.GetUserUseCase;
 import dev.mkopp.mysite.user.application.port.out.UserRepository;
 import dev.mkopp.mysite.user.domain.model.User;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -24,30 +25,29 @@ import java.util.UUID;
 class UserService implements FindOrCreateUserUseCase, GetUserUseCase, UserApi {
     
     private final UserRepository userRepository;
-    private final ApplicationEventPublisher eventPublisher;
     private final UserDtoMapper userDtoMapper;
-    private final UserEventMapper userEventMapper;
+    private final UserProvisioner userProvisioner;
+    private final KnownUserCache knownUserCache;
     
+    // Runs on every authenticated write; a cache hit touches neither a transaction nor the database
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public User execute(UUID keycloakId, String username, String email, String firstName, String lastName) {
-        return userRepository.findById(keycloakId)
-            .orElseGet(() -> {
-                log.info("Creating new user from Keycloak JWT: {}", username);
-                
-                User newUser = User.builder()
-                    .id(keycloakId)
-                    .username(username)
-                    .email(email)
-                    .firstName(firstName)
-                    .lastName(lastName)
-                    .build();
-                
-                User savedUser = userRepository.save(newUser);
-                
-                eventPublisher.publishEvent(userEventMapper.toCreatedEvent(savedUser));
-                
-                return savedUser;
-            });
+        int claimsHash = KnownUserCache.claimsHash(username, email, firstName, lastName);
+        User known = knownUserCache.get(keycloakId, claimsHash);
+        if (known != null) {
+            return known;
+        }
+        
+        User user = userProvisioner.provision(User.builder()
+            .id(keycloakId)
+            .username(username)
+            .email(email)
+            .firstName(firstName)
+            .lastName(lastName)
+            .build());
+        knownUserCache.put(keycloakId, claimsHash, user);
+        return user;
     }
     
     @Override
@@ -75,6 +75,15 @@ class UserService implements FindOrCreateUserUseCase, GetUserUseCase, UserApi {
     }
     
     @Override
+    @Transactional(readOnly = true)
+    public List<UserDto> getUsersByIds(Collection<UUID> userIds) {
+        return userRepository.findAllByIds(userIds).stream()
+            .map(userDtoMapper::toDto)
+            .toList();
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public UserDto findOrCreateUser(UUID keycloakId, String username, String email, String firstName, String lastName) {
         User user = execute(keycloakId, username, email, firstName, lastName);
         return userDtoMapper.toDto(user);
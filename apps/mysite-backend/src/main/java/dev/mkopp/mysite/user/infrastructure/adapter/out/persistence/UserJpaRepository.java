@@ -2,7 +2,11 @@ package dev.mkopp.mysite.user.infrastructure.adapter.out.persistence;
 
 import dev.mkopp.mysite.user.infrastructure.adapter.out.persistence.entity.UserEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -10,4 +14,13 @@ interface UserJpaRepository extends JpaRepository<UserEntity, UUID> {
     Optional<UserEntity> findByUsername(String username);
     Optional<UserEntity> findByEmail(String email);
     boolean existsByUsername(String username);
+    List<UserEntity> findByIdIn(Collection<UUID> ids);
+    
+    @Modifying
+    @Query(value = """
+        INSERT INTO app_user.users (id, username, email, first_name, last_name, created_at, updated_at)
+        VALUES (:id, :username, :email, :firstName, :lastName, now(), now())
+        ON CONFLICT DO NOTHING
+        """, nativeQuery = true)
+    int insertIfAbsent(UUID id, String username, String email, String firstName, String lastName);
 }
@@ -6,6 +6,8 @@ import dev.mkopp.mysite.user.infrastructure.adapter.out.persistence.mapper.UserE
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -23,11 +25,27 @@ class UserRepositoryAdapter implements UserRepository {
         return mapper.toDomain(savedEntity);
     }
     
+    @Override
+    public boolean insertIfAbsent(User user) {
+        return jpaRepository.insertIfAbsent(
+            user.getId(), user.getUsername(), user.getEmail(), user.getFirstName(), user.getLastName()) > 0;
+    }
+    
     @Override
     public Optional<User> findById(UUID id) {
         return jpaRepository.findById(id).map(mapper::toDomain);
     }
     
+    @Override
+    public List<User> findAllByIds(Collection<UUID> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return jpaRepository.findByIdIn(ids).stream()
+            .map(mapper::toDomain)
+            .toList();
+    }
+    
     @Override
     public Optional<User> findByUsername(String username) {
         return jpaRepository.findByUsername(username).map(mapper::toDomain);
@@ -0,0 +1,23 @@
+-- Chat memory of the AI chat, shared by all replicas and kept across restarts.
+-- Each conversation holds only its current message window; conversations idle for longer
+-- than the configured TTL are deleted by a scheduled job together with their messages.
+
+CREATE SCHEMA IF NOT EXISTS ai;
+
+CREATE TABLE ai.chat_conversations (
+    conversation_id VARCHAR(100) PRIMARY KEY,
+    last_active_at TIMESTAMPTZ NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_chat_conversations_last_active ON ai.chat_conversations (last_active_at);
+
+CREATE TABLE ai.chat_messages (
+    conversation_id VARCHAR(100) NOT NULL,
+    position INT NOT NULL,
+    message_type VARCHAR(20) NOT NULL,
+    content TEXT NOT NULL,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (conversation_id, position),
+    CONSTRAINT fk_chat_messages_conversation FOREIGN KEY (conversation_id)
+        REFERENCES ai.chat_conversations (conversation_id) ON DELETE CASCADE
+);
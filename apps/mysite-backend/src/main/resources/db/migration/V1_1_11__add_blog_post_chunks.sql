@@ -0,0 +1,29 @@
+-- Retrieval index of the AI chat: blog posts split into chunks with one embedding each.
+-- Chunk IDs are derived from the post ID and a hash of the chunk, so re-indexing a post only
+-- embeds and writes chunks whose content changed. There is no foreign key into the blog schema;
+-- chunks of deleted posts are removed by the indexer when it receives the delete event.
+-- Needs the pgvector extension (pgvector/pgvector Postgres image). Databases without it skip the
+-- table so the schema still migrates; the chat then needs a vector store outside of Postgres.
+
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_available_extensions WHERE name = 'vector') THEN
+        CREATE EXTENSION IF NOT EXISTS vector;
+
+        CREATE TABLE ai.blog_post_chunks (
+            id UUID PRIMARY KEY,
+            blog_post_id UUID NOT NULL,
+            chunk_index INT NOT NULL,
+            content_hash VARCHAR(64) NOT NULL,
+            content TEXT NOT NULL,
+            metadata JSONB NOT NULL DEFAULT '{}',
+            embedding vector(768) NOT NULL,
+            updated_at TIMESTAMPTZ NOT NULL DEFAULT CURRENT_TIMESTAMP
+        );
+
+        CREATE INDEX idx_blog_post_chunks_post ON ai.blog_post_chunks (blog_post_id);
+    ELSE
+        RAISE NOTICE 'pgvector is not available, skipping ai.blog_post_chunks';
+    END IF;
+END
+$$;
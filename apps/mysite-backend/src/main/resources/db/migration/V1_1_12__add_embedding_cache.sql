@@ -0,0 +1,14 @@
+-- Embeddings of previously seen texts, so re-indexing unchanged content costs no embedding calls.
+-- Rows are keyed by model, output dimensions and the SHA-256 of the text; they are never updated,
+-- a changed text simply hashes to a new row. Stored as real[] so the table needs no pgvector.
+
+CREATE SCHEMA IF NOT EXISTS ai;
+
+CREATE TABLE ai.embedding_cache (
+    model VARCHAR(100) NOT NULL,
+    dimensions INT NOT NULL,
+    text_hash CHAR(64) NOT NULL,
+    embedding REAL[] NOT NULL,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (model, dimensions, text_hash)
+);
@@ -0,0 +1,21 @@
+-- Full-text search over the chunks of the AI chat retrieval index, the lexical leg of the hybrid
+-- retriever. Catches exact terms such as class names and library versions that embeddings blur.
+-- Post title and tags outrank the chunk text. Skipped where ai.blog_post_chunks does not exist
+-- (no pgvector), the chat then retrieves by vector similarity only.
+
+DO $$
+BEGIN
+    IF to_regclass('ai.blog_post_chunks') IS NOT NULL THEN
+        ALTER TABLE ai.blog_post_chunks
+            ADD COLUMN search_vector TSVECTOR GENERATED ALWAYS AS (
+                setweight(to_tsvector('english', coalesce(metadata->>'title', '')), 'A') ||
+                setweight(to_tsvector('english', coalesce(metadata->>'tags', '')), 'A') ||
+                setweight(to_tsvector('english', content), 'B')
+            ) STORED;
+
+        CREATE INDEX idx_blog_post_chunks_search ON ai.blog_post_chunks USING GIN (search_vector);
+    ELSE
+        RAISE NOTICE 'ai.blog_post_chunks does not exist, skipping its full-text index';
+    END IF;
+END
+$$;
@@ -0,0 +1,11 @@
+-- Composite indexes for keyset (cursor) pagination.
+-- The trailing id makes the ordering total, so a (timestamp, id) cursor is unambiguous.
+-- They supersede the single-column indexes, which are now prefixes of them.
+
+CREATE INDEX idx_blog_posts_published_id ON blog.blog_posts (published_at DESC, id DESC);
+
+DROP INDEX IF EXISTS blog.idx_blog_posts_published;
+
+CREATE INDEX idx_comments_post_created_id ON blog.comments (blog_post_id, created_at DESC, id DESC);
+
+DROP INDEX IF EXISTS blog.idx_comments_post;
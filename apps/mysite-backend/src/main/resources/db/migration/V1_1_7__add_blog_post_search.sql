@@ -0,0 +1,11 @@
+-- Full-text search over blog posts.
+-- Title matches outrank description matches, which outrank content matches.
+
+ALTER TABLE blog.blog_posts
+    ADD COLUMN search_vector TSVECTOR GENERATED ALWAYS AS (
+        setweight(to_tsvector('english', coalesce(title, '')), 'A') ||
+        setweight(to_tsvector('english', coalesce(description, '')), 'B') ||
+        setweight(to_tsvector('english', coalesce(content, '')), 'C')
+    ) STORED;
+
+CREATE INDEX idx_blog_posts_search ON blog.blog_posts USING GIN (search_vector);
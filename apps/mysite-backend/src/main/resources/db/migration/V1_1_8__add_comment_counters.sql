@@ -0,0 +1,12 @@
+-- Denormalized per-comment counters, so a page of comments is rendered from a single query
+-- instead of two COUNT queries per comment.
+-- Maintained by the application on comment create/delete and like toggle; a scheduled
+-- reconciliation job repairs any drift.
+
+ALTER TABLE blog.comments
+    ADD COLUMN reply_count BIGINT NOT NULL DEFAULT 0,
+    ADD COLUMN like_count BIGINT NOT NULL DEFAULT 0;
+
+UPDATE blog.comments c
+SET reply_count = (SELECT count(*) FROM blog.comments r WHERE r.parent_comment_id = c.id),
+    like_count = (SELECT count(*) FROM blog.comment_likes l WHERE l.comment_id = c.id);
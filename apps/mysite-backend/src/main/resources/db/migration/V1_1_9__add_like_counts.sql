@@ -0,0 +1,16 @@
+-- Per-post like totals, written behind by the in-memory like counters in batched flushes.
+-- blog_likes stays the source of truth for who liked what; this table only holds the totals
+-- and is reconciled against blog_likes on every startup.
+
+CREATE TABLE blog.like_counts (
+    blog_post_id UUID PRIMARY KEY,
+    like_count BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMPTZ NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_like_counts_post FOREIGN KEY (blog_post_id) REFERENCES blog.blog_posts (id) ON DELETE CASCADE
+);
+
+INSERT INTO blog.like_counts (blog_post_id, like_count)
+SELECT p.id, count(l.id)
+FROM blog.blog_posts p
+LEFT JOIN blog.blog_likes l ON l.blog_post_id = p.id
+GROUP BY p.id;
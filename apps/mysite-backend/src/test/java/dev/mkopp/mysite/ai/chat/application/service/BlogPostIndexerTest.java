@@ -0,0 +1,149 @@
+package dev.mkopp.mysite.ai.chat.application.service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.ai.vectorstore.filter.Filter;
+
+import dev.mkopp.mysite.ai.chat.application.port.out.BlogPostChunkRepository;
+import dev.mkopp.mysite.blog.api.BlogPostApi;
+import dev.mkopp.mysite.blog.api.dto.BlogPostContentDto;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BlogPostIndexerTest {
+
+    private final UUID postId = UUID.randomUUID();
+    private final FakeBlogPostApi blogPostApi = new FakeBlogPostApi();
+    private final InMemoryChunkStore store = new InMemoryChunkStore();
+    private final BlogPostIndexer indexer = new BlogPostIndexer(blogPostApi, store, store, false);
+
+    @Test
+    void unchangedPostIsNotEmbeddedAgain() {
+        blogPostApi.put(post(paragraphs("alpha", 400)));
+
+        indexer.index(postId);
+        int embedded = store.embedded;
+        indexer.index(postId);
+
+        assertThat(embedded).isGreaterThan(1);
+        assertThat(store.embedded).isEqualTo(embedded);
+    }
+
+    @Test
+    void editedPostReplacesOnlyChangedChunks() {
+        String unchanged = paragraphs("alpha", 400);
+        blogPostApi.put(post(unchanged + "\n\n" + paragraphs("beta", 400)));
+        indexer.index(postId);
+        Set<String> before = store.findChunkIds(postId);
+
+        blogPostApi.put(post(unchanged + "\n\n" + paragraphs("gamma", 400)));
+        indexer.index(postId);
+        Set<String> after = store.findChunkIds(postId);
+
+        Set<String> kept = new HashSet<>(before);
+        kept.retainAll(after);
+        assertThat(kept).isNotEmpty();
+        assertThat(after).isNotEqualTo(before);
+        assertThat(store.chunks.values()).noneMatch(chunk -> chunk.getText().contains("beta"));
+    }
+
+    @Test
+    void missingPostRemovesItsChunks() {
+        blogPostApi.put(post(paragraphs("alpha", 100)));
+        indexer.index(postId);
+
+        blogPostApi.posts.clear();
+        indexer.index(postId);
+
+        assertThat(store.findChunkIds(postId)).isEmpty();
+    }
+
+    private BlogPostContentDto post(String content) {
+        return new BlogPostContentDto(postId, "post", "Post", "About things", content, Set.of("java", "ai"),
+                Instant.parse("2025-01-01T00:00:00Z"));
+    }
+
+    private static String paragraphs(String word, int words) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            text.append(word).append(i).append(i % 20 == 19 ? ".\n" : " ");
+        }
+        return text.toString();
+    }
+
+    private static final class FakeBlogPostApi implements BlogPostApi {
+
+        private final Map<UUID, BlogPostContentDto> posts = new HashMap<>();
+
+        void put(BlogPostContentDto post) {
+            posts.put(post.id(), post);
+        }
+
+        @Override
+        public Optional<BlogPostContentDto> getPostContent(UUID blogPostId) {
+            return Optional.ofNullable(posts.get(blogPostId));
+        }
+
+        @Override
+        public List<UUID> getAllPostIds() {
+            return new ArrayList<>(posts.keySet());
+        }
+    }
+
+    private static final class InMemoryChunkStore implements VectorStore, BlogPostChunkRepository {
+
+        private final Map<String, Document> chunks = new HashMap<>();
+        private int embedded;
+
+        @Override
+        public void add(List<Document> documents) {
+            embedded += documents.size();
+            documents.forEach(document -> chunks.put(document.getId(), document));
+        }
+
+        @Override
+        public void delete(List<String> idList) {
+            idList.forEach(chunks::remove);
+        }
+
+        @Override
+        public void delete(Filter.Expression filterExpression) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<Document> similaritySearch(SearchRequest request) {
+            return List.of();
+        }
+
+        @Override
+        public Set<String> findChunkIds(UUID blogPostId) {
+            Set<String> ids = new HashSet<>();
+            chunks.forEach((id, chunk) -> {
+                if (blogPostId.toString().equals(chunk.getMetadata().get("blog_post_id"))) {
+                    ids.add(id);
+                }
+            });
+            return ids;
+        }
+
+        @Override
+        public int deleteByBlogPostId(UUID blogPostId) {
+            Set<String> ids = findChunkIds(blogPostId);
+            ids.forEach(chunks::remove);
+            return ids.size();
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package dev.mkopp.mysite.ai.chat.infrastructure.adapter.out;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingOptions;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+
+import dev.mkopp.mysite.ai.chat.application.port.out.EmbeddingCacheRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CachingEmbeddingModelTest {
+
+    private CountingEmbeddingModel delegate;
+    private InMemoryEmbeddingCacheRepository cacheRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private CachingEmbeddingModel embeddingModel;
+
+    @BeforeEach
+    void setUp() {
+        delegate = new CountingEmbeddingModel();
+        cacheRepository = new InMemoryEmbeddingCacheRepository();
+        meterRegistry = new SimpleMeterRegistry();
+        embeddingModel = new CachingEmbeddingModel(delegate, cacheRepository, meterRegistry, "model-a", 3);
+    }
+
+    @Test
+    void sendsOnlyMissesToTheDelegate() {
+        embeddingModel.embed(List.of("alpha", "beta"));
+
+        List<float[]> embeddings = embeddingModel.embed(List.of("beta", "gamma", "alpha", "gamma"));
+
+        assertThat(delegate.calls).containsExactly(List.of("alpha", "beta"), List.of("gamma"));
+        assertThat(embeddings).containsExactly(vector("beta"), vector("gamma"), vector("alpha"), vector("gamma"));
+        assertThat(meterRegistry.get("ai.embedding.cache.requests").tag("result", "hit").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("ai.embedding.cache.requests").tag("result", "miss").counter().count()).isEqualTo(3);
+        assertThat(meterRegistry.get("ai.embedding.cache.requests").tag("result", "duplicate").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void fullyCachedBatchSavesTheCall() {
+        embeddingModel.embed(List.of("alpha", "beta"));
+        embeddingModel.embed(List.of("beta", "alpha"));
+
+        assertThat(delegate.calls).hasSize(1);
+        assertThat(meterRegistry.get("ai.embedding.cache.saved.calls").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("ai.embedding.cache.hit.ratio").gauge().value()).isEqualTo(0.5);
+    }
+
+    @Test
+    void separatesModelsAndDimensions() {
+        embeddingModel.embed(List.of("alpha"));
+        embeddingModel.call(new EmbeddingRequest(List.of("alpha"),
+                EmbeddingOptions.builder().model("model-b").build()));
+        embeddingModel.call(new EmbeddingRequest(List.of("alpha"),
+                EmbeddingOptions.builder().dimensions(2).build()));
+
+        assertThat(delegate.calls).hasSize(3);
+        assertThat(cacheRepository.entries).containsOnlyKeys(
+                "model-a/3/" + CachingEmbeddingModel.sha256("alpha"),
+                "model-b/3/" + CachingEmbeddingModel.sha256("alpha"),
+                "model-a/2/" + CachingEmbeddingModel.sha256("alpha"));
+    }
+
+    @Test
+    void failingCacheFallsBackToTheDelegate() {
+        cacheRepository.failing = true;
+
+        assertThat(embeddingModel.embed(List.of("alpha"))).containsExactly(vector("alpha"));
+        assertThat(delegate.calls).containsExactly(List.of("alpha"));
+    }
+
+    @Test
+    void singleTextsBypassTheCache() {
+        embeddingModel.embed(List.of("alpha"));
+
+        assertThat(embeddingModel.embed("alpha")).isEqualTo(vector("alpha"));
+        assertThat(embeddingModel.embed("what is hnsw?")).isEqualTo(vector("what is hnsw?"));
+
+        assertThat(delegate.calls).containsExactly(List.of("alpha"), List.of("alpha"), List.of("what is hnsw?"));
+        assertThat(cacheRepository.entries).containsOnlyKeys("model-a/3/" + CachingEmbeddingModel.sha256("alpha"));
+    }
+
+    private static float[] vector(String text) {
+        return new float[] {text.length(), text.charAt(0), 1f};
+    }
+
+    private static final class CountingEmbeddingModel implements EmbeddingModel {
+
+        private final List<List<String>> calls = new ArrayList<>();
+
+        @Override
+        public EmbeddingResponse call(EmbeddingRequest request) {
+            calls.add(request.getInstructions());
+            List<Embedding> embeddings = new ArrayList<>();
+            for (String text : request.getInstructions()) {
+                embeddings.add(new Embedding(vector(text), embeddings.size()));
+            }
+            return new EmbeddingResponse(embeddings);
+        }
+
+        @Override
+        public float[] embed(Document document) {
+            return embed(document.getText());
+        }
+    }
+
+    private static final class InMemoryEmbeddingCacheRepository implements EmbeddingCacheRepository {
+
+        private final Map<String, float[]> entries = new HashMap<>();
+        private boolean failing;
+
+        @Override
+        public Map<String, float[]> findAll(String model, int dimensions, Collection<String> textHashes) {
+            if (failing) {
+                throw new IllegalStateException("database down");
+            }
+            Map<String, float[]> found = new HashMap<>();
+            textHashes.forEach(hash -> {
+                float[] embedding = entries.get(model + "/" + dimensions + "/" + hash);
+                if (embedding != null) {
+                    found.put(hash, embedding);
+                }
+            });
+            return found;
+        }
+
+        @Override
+        public void saveAll(String model, int dimensions, Map<String, float[]> embeddingsByTextHash) {
+            if (failing) {
+                throw new IllegalStateException("database down");
+            }
+            embeddingsByTextHash.forEach((hash, embedding) ->
+                    entries.putIfAbsent(model + "/" + dimensions + "/" + hash, embedding));
+        }
+    }
+}
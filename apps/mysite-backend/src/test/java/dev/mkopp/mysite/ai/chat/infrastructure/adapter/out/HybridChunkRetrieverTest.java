@@ -0,0 +1,287 @@
+package dev.mkopp.mysite.ai.chat.infrastructure.adapter.out;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.ai.vectorstore.filter.Filter;
+import org.springframework.ai.vectorstore.filter.FilterExpressionBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import dev.mkopp.mysite.ai.chat.application.port.out.BlogPostChunkTextSearch;
+import dev.mkopp.mysite.ai.chat.infrastructure.adapter.out.RetrievalEvaluation.Question;
+import dev.mkopp.mysite.ai.chat.infrastructure.adapter.out.RetrievalEvaluation.Report;
+import dev.mkopp.mysite.ai.chat.infrastructure.adapter.out.vectorstore.HnswVectorStore;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HybridChunkRetrieverTest {
+
+    private static final List<Document> CHUNKS = List.of(
+            chunk("c1", "Upgrading the backend to Spring Boot 3.5.5 and Spring AI 1.1.0"),
+            chunk("c2", "Configuring the Spring Security resource server to validate Keycloak tokens"),
+            chunk("c3", "The QuestionAnswerAdvisor adds retrieved context from the vector store to the prompt"),
+            chunk("c4", "Running Postgres with the pgvector extension in Docker Compose"),
+            chunk("c5", "A modular monolith with Spring Modulith and application events"),
+            chunk("c6", "Building the Angular frontend with signals and standalone components"),
+            chunk("c7", "Caching validated tokens with Caffeine to skip signature checks"),
+            chunk("c8", "Tuning the HNSW graph: m and efConstruction trade build time for recall"),
+            chunk("c9", "Flyway migrations create the blog schema in Postgres"),
+            chunk("c10", "An embedding cache keyed by SHA-256 avoids calling the model for unchanged text"),
+            chunk("c11", "Observability in Spring Boot 3.4 with Micrometer and Prometheus"),
+            chunk("c12", "Deploying the containers with Docker and Traefik"));
+
+    // fixed question set, each with the chunks that answer it
+    private static final List<Question> QUESTIONS = List.of(
+            new Question("Which Spring AI version does the site use?", Set.of("c1")),
+            new Question("What does QuestionAnswerAdvisor do?", Set.of("c3")),
+            new Question("How are Keycloak tokens validated?", Set.of("c2", "c7")),
+            new Question("How is the vector database set up?", Set.of("c4")),
+            new Question("What does efConstruction control?", Set.of("c8")),
+            new Question("Was the backend upgraded to Spring Boot 3.5.5?", Set.of("c1")),
+            new Question("How does caching avoid repeated model calls?", Set.of("c10")),
+            new Question("How is the frontend built?", Set.of("c6")));
+
+    private ExecutorService executor;
+    private HnswVectorStore vectorStore;
+    private InMemoryTextSearch textSearch;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(2);
+        vectorStore = new HnswVectorStore(new TopicEmbeddingModel(), new ObjectMapper(), 8, 50, 32, null);
+        vectorStore.add(CHUNKS);
+        textSearch = new InMemoryTextSearch(CHUNKS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void fusionRanksChunksFoundByBothLegsFirst() {
+        HybridChunkRetriever retriever = new HybridChunkRetriever(vectorStore, textSearch, executor, 10, 60, 0);
+
+        List<Document> fused = retriever.fuse(List.of(
+                List.of(chunk("a", "a"), chunk("b", "b"), chunk("c", "c")),
+                List.of(chunk("c", "c"), chunk("d", "d"))), 3);
+
+        assertThat(fused).extracting(Document::getId).containsExactly("c", "a", "b");
+        assertThat(fused.get(0).getScore()).isEqualTo(1.0 / 63 + 1.0 / 61);
+    }
+
+    @Test
+    void failingLegFallsBackToTheOther() {
+        BlogPostChunkTextSearch failing = (query, filterExpression, topK) -> {
+            throw new IllegalStateException("database down");
+        };
+        HybridChunkRetriever retriever = new HybridChunkRetriever(vectorStore, failing, executor, 10, 60, 0);
+
+        List<Document> results = retriever.similaritySearch(SearchRequest.builder().query("Angular frontend").topK(2).build());
+
+        assertThat(results).hasSize(2).extracting(Document::getId).contains("c6");
+    }
+
+    @Test
+    void passesTheFilterToTheTextSearch() {
+        AtomicReference<Filter.Expression> received = new AtomicReference<>();
+        BlogPostChunkTextSearch recording = (query, filterExpression, topK) -> {
+            received.set(filterExpression);
+            return List.of();
+        };
+        HybridChunkRetriever retriever = new HybridChunkRetriever(vectorStore, recording, executor, 10, 60, 0);
+        Filter.Expression filter = new FilterExpressionBuilder().eq("blog_post_id", "p1").build();
+
+        retriever.similaritySearch(SearchRequest.builder().query("Angular frontend").filterExpression(filter).build());
+
+        assertThat(received.get()).isEqualTo(filter);
+    }
+
+    @Test
+    void textMatchesBelowTheMinimumRankNeedAVectorHit() {
+        // a threshold no chunk reaches leaves only what the lexical leg found
+        HybridChunkRetriever retriever = new HybridChunkRetriever(vectorStore, textSearch, executor, 10, 60, 2);
+        SearchRequest offTopic = SearchRequest.builder().query("Where can I buy Docker stickers?")
+                .similarityThreshold(0.999).build();
+        SearchRequest exactNames = SearchRequest.builder().query("Postgres pgvector Docker Compose")
+                .similarityThreshold(0.999).build();
+
+        assertThat(retriever.similaritySearch(offTopic)).isEmpty();
+        assertThat(retriever.similaritySearch(exactNames)).extracting(Document::getId).contains("c4");
+    }
+
+    @Test
+    void hybridRetrievalRecallsMoreThanEitherLeg() {
+        int k = 3;
+        // both legs pay a simulated round trip, the hybrid retriever runs them concurrently
+        VectorStore slowVectorStore = new SlowVectorStore(vectorStore, 5);
+        BlogPostChunkTextSearch slowTextSearch = (query, filterExpression, topK) -> {
+            pause(5);
+            return textSearch.searchText(query, filterExpression, topK);
+        };
+        HybridChunkRetriever hybrid = new HybridChunkRetriever(slowVectorStore, slowTextSearch, executor, 10, 60, 0);
+        RetrievalEvaluation evaluation = new RetrievalEvaluation(QUESTIONS, k);
+
+        Report vector = evaluation.run("vector", query -> slowVectorStore.similaritySearch(request(query, k)));
+        Report lexical = evaluation.run("full-text", query -> slowTextSearch.searchText(query, null, k));
+        Report fused = evaluation.run("hybrid", query -> hybrid.similaritySearch(request(query, k)));
+
+        assertThat(fused.recall()).isGreaterThan(vector.recall()).isGreaterThan(lexical.recall());
+        assertThat(fused.recall()).isGreaterThanOrEqualTo(0.9);
+    }
+
+    private static SearchRequest request(String query, int k) {
+        return SearchRequest.builder().query(query).topK(k).build();
+    }
+
+    private static Document chunk(String id, String text) {
+        return new Document(id, text, Map.of());
+    }
+
+    private static Set<String> terms(String text) {
+        Set<String> terms = new LinkedHashSet<>();
+        for (String term : text.toLowerCase().split("[^a-z0-9.-]+")) {
+            term = term.replaceAll("^[.-]+|[.-]+$", "");
+            if (term.length() > 2 && !STOP_WORDS.contains(term)) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+
+    private static final Set<String> STOP_WORDS = Set.of("the", "and", "with", "does", "what", "which", "how",
+            "are", "for", "was", "use", "site", "from", "into");
+
+    private static void pause(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Stands in for Postgres full-text search: ranks chunks by the number of query terms they contain,
+     * exact tokens only, like an OR-ed tsquery.
+     */
+    private static final class InMemoryTextSearch implements BlogPostChunkTextSearch {
+
+        private final List<Document> chunks;
+
+        private InMemoryTextSearch(List<Document> chunks) {
+            this.chunks = chunks;
+        }
+
+        @Override
+        public List<Document> searchText(String query, Filter.Expression filterExpression, int topK) {
+            Set<String> queryTerms = terms(query);
+            List<Document> matches = new ArrayList<>();
+            for (Document chunk : chunks) {
+                long matched = terms(chunk.getText()).stream().filter(queryTerms::contains).count();
+                if (matched > 0) {
+                    matches.add(chunk.mutate().score((double) matched).build());
+                }
+            }
+            matches.sort(Comparator.comparingDouble(Document::getScore).reversed());
+            return matches.subList(0, Math.min(topK, matches.size()));
+        }
+    }
+
+    /**
+     * Stands in for a text embedding: texts are mapped onto a few topics by keyword, so related
+     * wording lands close together while class names and version numbers carry no signal.
+     */
+    private static final class TopicEmbeddingModel implements EmbeddingModel {
+
+        private static final List<Set<String>> TOPICS = List.of(
+                Set.of("spring", "backend", "upgrading", "upgraded", "version", "modulith", "boot"),
+                Set.of("security", "keycloak", "tokens", "validate", "validated", "signature"),
+                Set.of("prompt", "context", "retrieved", "advisor", "model", "embedding", "embeddings"),
+                Set.of("postgres", "pgvector", "database", "flyway", "schema", "migrations"),
+                Set.of("angular", "frontend", "signals", "components", "built", "building"),
+                Set.of("caching", "cache", "caffeine", "avoid", "avoids", "repeated", "skip"),
+                Set.of("hnsw", "graph", "recall", "tuning", "control"),
+                Set.of("docker", "deploying", "containers", "traefik", "compose", "observability"));
+
+        @Override
+        public EmbeddingResponse call(EmbeddingRequest request) {
+            List<Embedding> embeddings = new ArrayList<>();
+            for (String text : request.getInstructions()) {
+                embeddings.add(new Embedding(embed(terms(text), text), embeddings.size()));
+            }
+            return new EmbeddingResponse(embeddings);
+        }
+
+        @Override
+        public float[] embed(Document document) {
+            return embed(document.getText());
+        }
+
+        private static float[] embed(Set<String> terms, String text) {
+            float[] vector = new float[TOPICS.size()];
+            // a little text-specific noise, so chunks of one topic are not exact duplicates
+            Random noise = new Random(text.hashCode());
+            for (int topic = 0; topic < TOPICS.size(); topic++) {
+                vector[topic] = 0.05f * noise.nextFloat();
+                for (String term : terms) {
+                    if (TOPICS.get(topic).contains(term)) {
+                        vector[topic] += 1;
+                    }
+                }
+            }
+            return vector;
+        }
+    }
+
+    private static final class SlowVectorStore implements VectorStore {
+
+        private final VectorStore delegate;
+        private final long millis;
+
+        private SlowVectorStore(VectorStore delegate, long millis) {
+            this.delegate = delegate;
+            this.millis = millis;
+        }
+
+        @Override
+        public void add(List<Document> documents) {
+            delegate.add(documents);
+        }
+
+        @Override
+        public void delete(List<String> idList) {
+            delegate.delete(idList);
+        }
+
+        @Override
+        public void delete(Filter.Expression filterExpression) {
+            delegate.delete(filterExpression);
+        }
+
+        @Override
+        public List<Document> similaritySearch(SearchRequest request) {
+            pause(millis);
+            return delegate.similaritySearch(request);
+        }
+    }
+}
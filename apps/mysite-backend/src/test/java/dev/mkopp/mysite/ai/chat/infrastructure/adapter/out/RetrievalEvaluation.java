@@ -0,0 +1,57 @@
+package dev.mkopp.mysite.ai.chat.infrastructure.adapter.out;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.springframework.ai.document.Document;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Offline evaluation of a retriever over a fixed question set: recall@k is the share of relevant
+ * chunks found in the first k results, averaged over the questions, latency is measured per question.
+ */
+@Slf4j
+final class RetrievalEvaluation {
+
+    private final List<Question> questions;
+    private final int k;
+
+    RetrievalEvaluation(List<Question> questions, int k) {
+        this.questions = questions;
+        this.k = k;
+    }
+
+    Report run(String name, Function<String, List<Document>> retriever) {
+        double recallSum = 0;
+        List<Long> latencies = new ArrayList<>(questions.size());
+        for (Question question : questions) {
+            long start = System.nanoTime();
+            List<Document> results = retriever.apply(question.text());
+            latencies.add(System.nanoTime() - start);
+
+            long found = results.stream()
+                    .limit(k)
+                    .map(Document::getId)
+                    .filter(question.relevantIds()::contains)
+                    .count();
+            recallSum += (double) found / question.relevantIds().size();
+        }
+        Collections.sort(latencies);
+        Report report = new Report(name, recallSum / questions.size(),
+                latencies.stream().mapToLong(Long::longValue).sum() / latencies.size() / 1000,
+                latencies.get((int) Math.ceil(latencies.size() * 0.95) - 1) / 1000);
+        log.info("{}: recall@{} {}, mean {} us, p95 {} us", report.name(), k, String.format("%.3f", report.recall()),
+                report.meanMicros(), report.p95Micros());
+        return report;
+    }
+
+    record Question(String text, Set<String> relevantIds) {
+    }
+
+    record Report(String name, double recall, long meanMicros, long p95Micros) {
+    }
+}
@@ -0,0 +1,116 @@
+package dev.mkopp.mysite.ai.chat.infrastructure.adapter.out;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SemanticCacheAdvisorTest {
+
+    // questions mapped to hand-made embeddings, the first two point in almost the same direction
+    private static final Map<String, float[]> EMBEDDINGS = Map.of(
+            "what projects did you build?", new float[] {1f, 0f, 0f},
+            "which projects have you built?", new float[] {0.99f, 0.05f, 0f},
+            "how can i contact you?", new float[] {0f, 1f, 0f});
+
+    private FakeChatModel chatModel;
+    private SimpleMeterRegistry meterRegistry;
+    private ChatClient chatClient;
+
+    @BeforeEach
+    void setUp() {
+        chatModel = new FakeChatModel();
+        meterRegistry = new SimpleMeterRegistry();
+        SemanticCacheAdvisor advisor = new SemanticCacheAdvisor(
+                new FakeEmbeddingModel(), meterRegistry, 0.95, 10, Duration.ofHours(1));
+        chatClient = ChatClient.builder(chatModel).defaultAdvisors(advisor).build();
+    }
+
+    @Test
+    void similarQuestionIsAnsweredFromCache() {
+        String first = ask("You are a portfolio assistant.", "What projects did you build?");
+        String second = ask("You are a portfolio assistant.", "Which projects  have you built?");
+
+        assertThat(second).isEqualTo(first);
+        assertThat(chatModel.calls.get()).isEqualTo(1);
+        assertThat(requests("hit")).isEqualTo(1);
+        assertThat(requests("miss")).isEqualTo(1);
+    }
+
+    @Test
+    void differentQuestionOrSystemPromptCallsTheModel() {
+        ask("You are a portfolio assistant.", "What projects did you build?");
+        ask("You are a portfolio assistant.", "How can I contact you?");
+        ask("You write blog posts.", "What projects did you build?");
+
+        assertThat(chatModel.calls.get()).isEqualTo(3);
+        assertThat(requests("hit")).isZero();
+    }
+
+    @Test
+    void followUpQuestionsAreNotCached() {
+        chatClient.prompt()
+                .system("You are a portfolio assistant.")
+                .messages(new UserMessage("Hi"), new AssistantMessage("Hello!"))
+                .user("What projects did you build?")
+                .call()
+                .content();
+
+        assertThat(chatModel.calls.get()).isEqualTo(1);
+        assertThat(requests("skip")).isEqualTo(1);
+    }
+
+    private String ask(String system, String question) {
+        return chatClient.prompt().system(system).user(question).call().content();
+    }
+
+    private double requests(String result) {
+        return meterRegistry.get("ai.chat.semantic.cache.requests").tag("result", result).counter().count();
+    }
+
+    private static final class FakeChatModel implements ChatModel {
+
+        private final AtomicInteger calls = new AtomicInteger();
+
+        @Override
+        public ChatResponse call(Prompt prompt) {
+            int call = calls.incrementAndGet();
+            return new ChatResponse(List.of(new Generation(new AssistantMessage("answer " + call))));
+        }
+    }
+
+    private static final class FakeEmbeddingModel implements EmbeddingModel {
+
+        @Override
+        public EmbeddingResponse call(EmbeddingRequest request) {
+            List<Embedding> embeddings = request.getInstructions().stream()
+                    .map(text -> new Embedding(EMBEDDINGS.getOrDefault(text, new float[] {0f, 0f, 1f}), 0))
+                    .toList();
+            return new EmbeddingResponse(embeddings);
+        }
+
+        @Override
+        public float[] embed(Document document) {
+            return embed(document.getText());
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package dev.mkopp.mysite.ai.chat.infrastructure.adapter.out.persistence;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+
+import dev.mkopp.mysite.ai.chat.infrastructure.adapter.out.persistence.JdbcChatMemoryRepository.Alignment;
+import dev.mkopp.mysite.ai.chat.infrastructure.adapter.out.persistence.JdbcChatMemoryRepository.StoredMessage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JdbcChatMemoryRepositoryTest {
+
+    @Test
+    void windowReadBeforeAConcurrentTurnKeepsThatTurn() {
+        // stored: turn 1 and the turn another replica saved after this window was read
+        List<StoredMessage> stored = List.of(user(0, "q1"), assistant(1, "a1"), user(2, "q2"), assistant(3, "a2"));
+
+        Alignment alignment = JdbcChatMemoryRepository.align(stored, List.of(
+                new UserMessage("q1"), new AssistantMessage("a1"), new UserMessage("q3"), new AssistantMessage("a3")));
+
+        assertThat(alignment).isEqualTo(new Alignment(0, 2));
+    }
+
+    @Test
+    void trimmedWindowAlignsAfterTheDroppedMessages() {
+        List<StoredMessage> stored = List.of(user(0, "q1"), assistant(1, "a1"), user(2, "q2"), assistant(3, "a2"));
+
+        Alignment alignment = JdbcChatMemoryRepository.align(stored, List.of(
+                new UserMessage("q2"), new AssistantMessage("a2"), new UserMessage("q3")));
+
+        assertThat(alignment).isEqualTo(new Alignment(2, 2));
+    }
+
+    @Test
+    void repeatedQuestionsAlignWithTheLatestRun() {
+        List<StoredMessage> stored = List.of(user(0, "hi"), assistant(1, "hello"), user(2, "hi"), assistant(3, "hello"));
+
+        Alignment alignment = JdbcChatMemoryRepository.align(stored, List.of(
+                new UserMessage("hi"), new AssistantMessage("hello"), new UserMessage("bye")));
+
+        assertThat(alignment).isEqualTo(new Alignment(2, 2));
+        assertThat(JdbcChatMemoryRepository.align(List.of(), List.of(new UserMessage("hi"))).length()).isZero();
+    }
+
+    private static StoredMessage user(int position, String content) {
+        return new StoredMessage(position, "USER", content);
+    }
+
+    private static StoredMessage assistant(int position, String content) {
+        return new StoredMessage(position, "ASSISTANT", content);
+    }
+}
@@ -0,0 +1,37 @@
+package dev.mkopp.mysite.ai.chat.infrastructure.adapter.out.persistence;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.vectorstore.filter.FilterExpressionBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JsonbMetadataFilterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final FilterExpressionBuilder b = new FilterExpressionBuilder();
+
+    @Test
+    void bindsKeysAndValuesInTheOrderTheyAppear() {
+        JsonbMetadataFilter filter = JsonbMetadataFilter.of(
+                b.and(b.eq("slug", "hnsw"), b.not(b.group(b.or(b.gte("chunk_index", 2), b.in("title", "A", "B"))))).build(),
+                "metadata", objectMapper);
+
+        assertThat(filter.sql()).isEqualTo("(coalesce(metadata -> CAST(? AS text) = CAST(? AS jsonb), false)"
+                + " AND NOT (coalesce(metadata -> CAST(? AS text) >= CAST(? AS jsonb), false)"
+                + " OR coalesce(metadata -> CAST(? AS text) IN (CAST(? AS jsonb), CAST(? AS jsonb)), false)))");
+        assertThat(filter.args()).containsExactly("slug", "\"hnsw\"", "chunk_index", "2", "title", "\"A\"", "\"B\"");
+    }
+
+    @Test
+    void translatesNegationsAndEmptyFilters() {
+        assertThat(JsonbMetadataFilter.of(b.ne("slug", "hnsw").build(), "metadata", objectMapper).sql())
+                .isEqualTo("metadata -> CAST(? AS text) IS DISTINCT FROM CAST(? AS jsonb)");
+        assertThat(JsonbMetadataFilter.of(b.nin("slug", List.of()).build(), "metadata", objectMapper))
+                .isEqualTo(new JsonbMetadataFilter("NOT false", List.of()));
+        assertThat(JsonbMetadataFilter.of(null, "metadata", objectMapper).sql()).isEqualTo("true");
+    }
+}
@@ -0,0 +1,157 @@
+package dev.mkopp.mysite.ai.chat.infrastructure.adapter.out.vectorstore;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+import org.springframework.ai.vectorstore.SearchRequest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import dev.mkopp.mysite.ai.chat.infrastructure.adapter.out.vectorstore.HnswGraph.Scored;
+import lombok.extern.slf4j.Slf4j;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+class HnswVectorStoreTest {
+
+    private static final int DIMENSIONS = 32;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void approximateSearchFindsMostExactNeighbours() {
+        Random random = new Random(7);
+        HnswGraph graph = new HnswGraph(DIMENSIONS, 16, 200, 42);
+        int vectors = 5_000;
+        for (int i = 0; i < vectors; i++) {
+            graph.add(HnswVectorStore.normalize(randomVector(random)));
+        }
+
+        int queries = 100;
+        int k = 10;
+        int found = 0;
+        long approximateNanos = 0;
+        long exactNanos = 0;
+        for (int q = 0; q < queries; q++) {
+            float[] query = HnswVectorStore.normalize(randomVector(random));
+            long start = System.nanoTime();
+            List<Scored> approximate = graph.search(query, k, 64, node -> true);
+            approximateNanos += System.nanoTime() - start;
+            start = System.nanoTime();
+            List<Scored> exact = graph.exactSearch(query, k, node -> true);
+            exactNanos += System.nanoTime() - start;
+
+            Set<Integer> expected = new HashSet<>();
+            exact.forEach(hit -> expected.add(hit.node()));
+            found += (int) approximate.stream().filter(hit -> expected.contains(hit.node())).count();
+        }
+
+        double recall = (double) found / (queries * k);
+        log.info("HNSW recall@{} over {} vectors: {}, {} us per query vs {} us exact", k, vectors, recall,
+                approximateNanos / queries / 1000, exactNanos / queries / 1000);
+        assertThat(recall).isGreaterThan(0.9);
+    }
+
+    @Test
+    void searchHonoursFilterAndDeletes() {
+        HnswVectorStore store = new HnswVectorStore(new FakeEmbeddingModel(), new ObjectMapper(), 8, 50, 32, null);
+        List<Document> documents = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            documents.add(Document.builder()
+                    .id("doc-" + i)
+                    .text("text " + i)
+                    .metadata(Map.of("post", i % 20 == 0 ? "rare" : "common", "index", i))
+                    .build());
+        }
+        store.add(documents);
+
+        List<Document> rare = store.similaritySearch(SearchRequest.builder()
+                .query("text 3")
+                .topK(10)
+                .filterExpression("post == 'rare'")
+                .build());
+        assertThat(rare).hasSize(10).allMatch(document -> "rare".equals(document.getMetadata().get("post")));
+
+        store.delete(List.of("doc-0", "doc-20"));
+        List<Document> afterDelete = store.similaritySearch(SearchRequest.builder()
+                .query("text 3")
+                .topK(10)
+                .filterExpression("post == 'rare' && index >= 40")
+                .build());
+        assertThat(afterDelete).hasSize(8).extracting(Document::getId).doesNotContain("doc-0", "doc-20");
+    }
+
+    @Test
+    void snapshotRestoresTheIndex() {
+        Path snapshot = tempDir.resolve("hnsw.bin");
+        HnswVectorStore store = new HnswVectorStore(new FakeEmbeddingModel(), new ObjectMapper(), 8, 50, 32, snapshot);
+        store.add(List.of(
+                new Document("a", "first text", Map.of("slug", "first")),
+                new Document("b", "second text", Map.of("slug", "second")),
+                new Document("c", "third text", Map.of("slug", "third"))));
+        store.delete(List.of("c"));
+        store.saveIfDirty();
+
+        HnswVectorStore restored = new HnswVectorStore(new FakeEmbeddingModel(), new ObjectMapper(), 8, 50, 32, snapshot);
+        restored.load();
+
+        assertThat(restored.size()).isEqualTo(2);
+        List<Document> hits = restored.similaritySearch(SearchRequest.builder().query("second text").topK(1).build());
+        assertThat(hits).extracting(Document::getId).containsExactly("b");
+        assertThat(hits.get(0).getMetadata()).containsEntry("slug", "second");
+    }
+
+    private static float[] randomVector(Random random) {
+        float[] vector = new float[DIMENSIONS];
+        for (int i = 0; i < DIMENSIONS; i++) {
+            vector[i] = (float) random.nextGaussian();
+        }
+        return vector;
+    }
+
+    private static float[] positive(float[] vector) {
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] = Math.abs(vector[i]);
+        }
+        return vector;
+    }
+
+    /**
+     * Deterministic pseudo-embeddings: the same text always maps to the same random vector. Components
+     * are positive like the similarities of real text embeddings, which the default threshold of 0 relies on.
+     */
+    private static final class FakeEmbeddingModel implements EmbeddingModel {
+
+        private final Map<String, float[]> cache = new HashMap<>();
+
+        @Override
+        public EmbeddingResponse call(EmbeddingRequest request) {
+            List<Embedding> embeddings = new ArrayList<>();
+            for (String text : request.getInstructions()) {
+                float[] vector = cache.computeIfAbsent(text, t -> positive(randomVector(new Random(t.hashCode()))));
+                embeddings.add(new Embedding(vector, embeddings.size()));
+            }
+            return new EmbeddingResponse(embeddings);
+        }
+
+        @Override
+        public float[] embed(Document document) {
+            return embed(document.getText());
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package dev.mkopp.mysite.ai.chat.infrastructure.adapter.out.vectorstore;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.ai.vectorstore.SimpleVectorStore;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.extern.slf4j.Slf4j;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+class MappedVectorStoreTest {
+
+    private static final int DIMENSIONS = 64;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void rescoredSearchMatchesExactSearch() throws Exception {
+        Random random = new Random(11);
+        int vectors = 20_000;
+        List<QuantizedVectorFile.Entry> entries = new ArrayList<>(vectors);
+        for (int i = 0; i < vectors; i++) {
+            entries.add(new QuantizedVectorFile.Entry("doc-" + i, "text " + i, "{}", randomVector(random)));
+        }
+        Path path = tempDir.resolve("vectors.bin");
+        QuantizedVectorFile.write(path, entries);
+
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        long heapBefore = runtime.totalMemory() - runtime.freeMemory();
+        long start = System.nanoTime();
+        try (QuantizedVectorFile file = QuantizedVectorFile.open(path)) {
+            long openMicros = (System.nanoTime() - start) / 1000;
+            long heapAfter = runtime.totalMemory() - runtime.freeMemory();
+            log.info("Opened {} vectors ({} KB on disk) in {} us, heap grew by about {} KB", file.count(),
+                    Files.size(path) / 1024, openMicros, (heapAfter - heapBefore) / 1024);
+
+            int queries = 50;
+            int k = 10;
+            int matched = 0;
+            long searchNanos = 0;
+            for (int q = 0; q < queries; q++) {
+                float[] query = HnswVectorStore.normalize(randomVector(random));
+                long searchStart = System.nanoTime();
+                List<QuantizedVectorFile.Hit> hits = file.search(query, k, 4 * k, index -> true);
+                searchNanos += System.nanoTime() - searchStart;
+                List<Integer> expected = exactTopK(entries, query, k);
+                matched += (int) hits.stream().filter(hit -> expected.contains(hit.index())).count();
+            }
+            double recall = (double) matched / (queries * k);
+            log.info("Quantized recall@{} with rescoring: {}, {} us per query", k, recall, searchNanos / queries / 1000);
+            assertThat(recall).isGreaterThan(0.97);
+        }
+    }
+
+    @Test
+    void convertsSimpleVectorStoreJson() throws Exception {
+        FakeEmbeddingModel embeddingModel = new FakeEmbeddingModel();
+        SimpleVectorStore simpleVectorStore = SimpleVectorStore.builder(embeddingModel).build();
+        simpleVectorStore.add(List.of(
+                new Document("a", "first text", Map.of("filename", "README.md", "part", 1)),
+                new Document("b", "second text", Map.of("filename", "README.md", "part", 2)),
+                new Document("c", "third text", Map.of("filename", "OTHER.md", "part", 3))));
+        Path json = tempDir.resolve("vectorstore.json");
+        simpleVectorStore.save(json.toFile());
+
+        Path binary = tempDir.resolve("vectorstore.bin");
+        ObjectMapper objectMapper = new ObjectMapper();
+        assertThat(SimpleVectorStoreConverter.convert(json, binary, objectMapper)).isEqualTo(3);
+
+        try (MappedVectorStore store = MappedVectorStore.open(binary, embeddingModel, objectMapper, 4)) {
+            assertThat(store.size()).isEqualTo(3);
+            List<Document> hits = store.similaritySearch(SearchRequest.builder().query("second text").topK(1).build());
+            assertThat(hits).extracting(Document::getId).containsExactly("b");
+            assertThat(hits.get(0).getText()).isEqualTo("second text");
+            assertThat(hits.get(0).getMetadata()).containsEntry("filename", "README.md").containsEntry("part", 2);
+
+            List<Document> filtered = store.similaritySearch(SearchRequest.builder()
+                    .query("second text")
+                    .topK(3)
+                    .filterExpression("filename == 'OTHER.md'")
+                    .build());
+            assertThat(filtered).extracting(Document::getId).containsExactly("c");
+        }
+    }
+
+    private static List<Integer> exactTopK(List<QuantizedVectorFile.Entry> entries, float[] query, int k) {
+        List<float[]> scores = new ArrayList<>(entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            float[] vector = HnswVectorStore.normalize(entries.get(i).vector());
+            float dot = 0;
+            for (int d = 0; d < DIMENSIONS; d++) {
+                dot += vector[d] * query[d];
+            }
+            scores.add(new float[] {i, dot});
+        }
+        return scores.stream()
+                .sorted(Comparator.comparingDouble((float[] score) -> score[1]).reversed())
+                .limit(k)
+                .map(score -> (int) score[0])
+                .toList();
+    }
+
+    private static float[] randomVector(Random random) {
+        float[] vector = new float[DIMENSIONS];
+        for (int i = 0; i < DIMENSIONS; i++) {
+            vector[i] = (float) random.nextGaussian();
+        }
+        return vector;
+    }
+
+    // same text, same vector; positive components keep similarities above the default threshold of 0
+    private static final class FakeEmbeddingModel implements EmbeddingModel {
+
+        private final Map<String, float[]> cache = new HashMap<>();
+
+        @Override
+        public EmbeddingResponse call(EmbeddingRequest request) {
+            List<Embedding> embeddings = new ArrayList<>();
+            for (String text : request.getInstructions()) {
+                float[] vector = cache.computeIfAbsent(text, t -> {
+                    float[] random = randomVector(new Random(t.hashCode()));
+                    for (int i = 0; i < random.length; i++) {
+                        random[i] = Math.abs(random[i]);
+                    }
+                    return random;
+                });
+                embeddings.add(new Embedding(vector, embeddings.size()));
+            }
+            return new EmbeddingResponse(embeddings);
+        }
+
+        @Override
+        public float[] embed(Document document) {
+            return embed(document.getText());
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package dev.mkopp.mysite.blog.application.service;
+
+import dev.mkopp.mysite.blog.application.port.out.LikeCountRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LikeCountersTest {
+    
+    private static final int WRITERS = 8;
+    private static final int TOGGLES_PER_WRITER = 50_000;
+    
+    @Test
+    void concurrentTogglesAndFlushesLoseNoUpdates() throws Exception {
+        InMemoryLikeCountRepository repository = new InMemoryLikeCountRepository();
+        LikeCounters counters = new LikeCounters(repository, false);
+        List<UUID> posts = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+        posts.forEach(post -> repository.totals.put(post, 0L));
+        Map<UUID, AtomicLong> expected = new ConcurrentHashMap<>();
+        posts.forEach(post -> expected.put(post, new AtomicLong()));
+        
+        ExecutorService writers = Executors.newFixedThreadPool(WRITERS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        
+        Thread flusher = new Thread(() -> {
+            while (writing.get()) {
+                counters.flush();
+            }
+        });
+        flusher.start();
+        
+        for (int w = 0; w < WRITERS; w++) {
+            writers.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < TOGGLES_PER_WRITER; i++) {
+                    UUID post = posts.get(random.nextInt(posts.size()));
+                    long delta = random.nextInt(3) == 0 ? -1 : 1;
+                    counters.add(post, delta);
+                    expected.get(post).addAndGet(delta);
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        writers.shutdown();
+        assertThat(writers.awaitTermination(1, TimeUnit.MINUTES)).isTrue();
+        writing.set(false);
+        flusher.join();
+        // at most every third flush fails, so two more drain whatever is still pending
+        counters.flush();
+        counters.flush();
+        
+        assertThat(repository.failures.get()).isPositive();
+        for (UUID post : posts) {
+            assertThat(counters.get(post)).isEqualTo(expected.get(post).get());
+            assertThat(repository.totals.get(post)).isEqualTo(expected.get(post).get());
+        }
+    }
+    
+    @Test
+    void servesPersistedTotalPlusPendingDeltas() {
+        InMemoryLikeCountRepository repository = new InMemoryLikeCountRepository();
+        UUID post = UUID.randomUUID();
+        repository.totals.put(post, 41L);
+        LikeCounters counters = new LikeCounters(repository, false);
+        
+        counters.add(post, 1);
+        
+        assertThat(counters.get(post)).isEqualTo(42);
+        assertThat(repository.totals.get(post)).isEqualTo(41);
+        counters.flush();
+        assertThat(repository.totals.get(post)).isEqualTo(42);
+        assertThat(counters.get(post)).isEqualTo(42);
+    }
+    
+    @Test
+    void flushReloadsTotalsFlushedByOtherInstances() {
+        InMemoryLikeCountRepository repository = new InMemoryLikeCountRepository();
+        UUID post = UUID.randomUUID();
+        repository.totals.put(post, 10L);
+        LikeCounters counters = new LikeCounters(repository, false);
+        
+        counters.add(post, 1);
+        // another instance flushes two likes of its own
+        repository.totals.merge(post, 2L, Long::sum);
+        counters.flush();
+        
+        assertThat(counters.get(post)).isEqualTo(13);
+        assertThat(repository.totals.get(post)).isEqualTo(13);
+    }
+    
+    @Test
+    void unknownPostsAreNotHeldInMemory() {
+        InMemoryLikeCountRepository repository = new InMemoryLikeCountRepository();
+        UUID post = UUID.randomUUID();
+        repository.totals.put(post, 3L);
+        LikeCounters counters = new LikeCounters(repository, false);
+        
+        for (int i = 0; i < 100; i++) {
+            assertThat(counters.get(UUID.randomUUID())).isZero();
+        }
+        Map<UUID, Long> totals = counters.getAll(List.of(post, UUID.randomUUID(), UUID.randomUUID()));
+        
+        assertThat(totals).containsExactly(Map.entry(post, 3L));
+        assertThat(counters.size()).isEqualTo(1);
+    }
+    
+    /**
+     * Posts exist once they have a total. Applies batches atomically and fails every third one,
+     * so the retry path is exercised as well.
+     */
+    private static class InMemoryLikeCountRepository implements LikeCountRepository {
+        
+        private final Map<UUID, Long> totals = new ConcurrentHashMap<>();
+        private final AtomicInteger calls = new AtomicInteger();
+        private final AtomicInteger failures = new AtomicInteger();
+        
+        @Override
+        public OptionalLong findCountByBlogPostId(UUID blogPostId) {
+            Long total = totals.get(blogPostId);
+            return total != null ? OptionalLong.of(total) : OptionalLong.empty();
+        }
+        
+        @Override
+        public Map<UUID, Long> findCountsByBlogPostIds(Collection<UUID> blogPostIds) {
+            Map<UUID, Long> counts = new HashMap<>();
+            blogPostIds.forEach(post -> findCountByBlogPostId(post).ifPresent(total -> counts.put(post, total)));
+            return counts;
+        }
+        
+        @Override
+        public synchronized void addAll(Map<UUID, Long> deltasByBlogPostId) {
+            if (calls.incrementAndGet() % 3 == 0) {
+                failures.incrementAndGet();
+                throw new IllegalStateException("simulated flush failure");
+            }
+            deltasByBlogPostId.forEach((post, delta) -> totals.merge(post, delta, Long::sum));
+        }
+        
+        @Override
+        public int reconcile() {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package dev.mkopp.mysite.blog.infrastructure.adapter.out.persistence.mapper;
+
+import dev.mkopp.mysite.blog.application.mapper.AuthorMapperImpl;
+import dev.mkopp.mysite.blog.domain.model.BlogPost;
+import dev.mkopp.mysite.blog.infrastructure.adapter.out.persistence.entity.BlogPostEntity;
+import dev.mkopp.mysite.user.api.UserApi;
+import dev.mkopp.mysite.user.api.dto.UserDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+class BlogPostEntityMapperTest {
+    
+    private final List<UUID> authorIds = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+    
+    private BlogPostEntityMapper mapper;
+    private UserApi userApi;
+    
+    @BeforeEach
+    void setUp() {
+        userApi = mock(UserApi.class);
+        when(userApi.getUsersByIds(anyCollection())).thenAnswer(invocation -> {
+            Collection<UUID> ids = invocation.getArgument(0);
+            return ids.stream()
+                .map(id -> new UserDto(id, "user-" + id, id + "@example.com", "First", "Last", Instant.now()))
+                .toList();
+        });
+        
+        mapper = new BlogPostEntityMapperImpl();
+        mapper.userApi = userApi;
+        mapper.authorMapper = new AuthorMapperImpl();
+    }
+    
+    @ParameterizedTest
+    @ValueSource(ints = {1, 5, 20, 100})
+    void toDomainResolvesAuthorsOncePerPage(int pageSize) {
+        List<BlogPostEntity> page = IntStream.range(0, pageSize)
+            .mapToObj(i -> BlogPostEntity.builder()
+                .id(UUID.randomUUID())
+                .slug("post-" + i)
+                .title("Post " + i)
+                .content("content")
+                .authorId(authorIds.get(i % authorIds.size()))
+                .publishedAt(Instant.now())
+                .build())
+            .toList();
+        
+        List<BlogPost> posts = mapper.toDomain(page);
+        
+        assertThat(posts).hasSize(pageSize);
+        assertThat(posts).allSatisfy(post -> assertThat(post.getAuthor()).isNotNull());
+        verify(userApi, times(1)).getUsersByIds(anyCollection());
+        verify(userApi, never()).getUserById(any());
+    }
+}
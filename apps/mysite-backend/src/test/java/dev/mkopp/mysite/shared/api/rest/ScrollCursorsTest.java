@@ -0,0 +1,42 @@
+package dev.mkopp.mysite.shared.api.rest;
+
+import dev.mkopp.mysite.shared.api.exception.BusinessException;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ScrollCursorsTest {
+    
+    @Test
+    void roundTripsKeysetPosition() {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put("publishedAt", Instant.parse("2025-03-01T10:15:30.123456789Z"));
+        keys.put("id", UUID.randomUUID());
+        
+        String cursor = ScrollCursors.encode(ScrollPosition.forward(keys));
+        ScrollPosition decoded = ScrollCursors.decode(cursor);
+        
+        assertThat(decoded).isInstanceOf(KeysetScrollPosition.class);
+        assertThat(((KeysetScrollPosition) decoded).getKeys()).containsExactlyEntriesOf(keys);
+    }
+    
+    @Test
+    void blankCursorStartsAtInitialPosition() {
+        assertThat(ScrollCursors.decode(null).isInitial()).isTrue();
+        assertThat(ScrollCursors.decode("").isInitial()).isTrue();
+    }
+    
+    @Test
+    void rejectsMalformedCursor() {
+        assertThatThrownBy(() -> ScrollCursors.decode("not-a-cursor"))
+            .isInstanceOf(BusinessException.class);
+    }
+}
@@ -0,0 +1,109 @@
+package dev.mkopp.mysite.shared.authentication.infrastructure.primary;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CachingJwtDecoderTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-01T12:00:00Z");
+
+    @Test
+    void repeatedTokenIsValidatedOnce() {
+        CountingDecoder delegate = new CountingDecoder(NOW.plusSeconds(300));
+        CachingJwtDecoder decoder = new CachingJwtDecoder(delegate, 100, Duration.ofMinutes(5), clockAt(NOW));
+
+        Jwt first = decoder.decode("token-a");
+        Jwt second = decoder.decode("token-a");
+        decoder.decode("token-b");
+
+        assertThat(second).isSameAs(first);
+        assertThat(delegate.calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    void expiredTokenIsValidatedAgain() {
+        CountingDecoder delegate = new CountingDecoder(NOW.plusSeconds(60));
+        MutableClock clock = new MutableClock(NOW);
+        CachingJwtDecoder decoder = new CachingJwtDecoder(delegate, 100, Duration.ofMinutes(5), clock);
+
+        decoder.decode("token-a");
+        clock.now = NOW.plusSeconds(61);
+        decoder.decode("token-a");
+
+        assertThat(delegate.calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    void rejectedTokenIsNotCached() {
+        CountingDecoder delegate = new CountingDecoder(NOW.plusSeconds(300));
+        CachingJwtDecoder decoder = new CachingJwtDecoder(delegate, 100, Duration.ofMinutes(5), clockAt(NOW));
+
+        assertThatThrownBy(() -> decoder.decode("invalid")).isInstanceOf(BadJwtException.class);
+        assertThatThrownBy(() -> decoder.decode("invalid")).isInstanceOf(BadJwtException.class);
+
+        assertThat(delegate.calls.get()).isEqualTo(2);
+    }
+
+    private static Clock clockAt(Instant instant) {
+        return Clock.fixed(instant, ZoneOffset.UTC);
+    }
+
+    private static final class CountingDecoder implements JwtDecoder {
+
+        private final AtomicInteger calls = new AtomicInteger();
+        private final Instant expiresAt;
+
+        private CountingDecoder(Instant expiresAt) {
+            this.expiresAt = expiresAt;
+        }
+
+        @Override
+        public Jwt decode(String token) {
+            calls.incrementAndGet();
+            if (token.equals("invalid")) {
+                throw new BadJwtException("invalid signature");
+            }
+            return Jwt.withTokenValue(token)
+                    .header("alg", "RS256")
+                    .subject("user")
+                    .issuedAt(NOW.minusSeconds(10))
+                    .expiresAt(expiresAt)
+                    .build();
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+    }
+}
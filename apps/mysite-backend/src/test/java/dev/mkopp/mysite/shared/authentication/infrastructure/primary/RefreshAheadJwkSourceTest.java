@@ -0,0 +1,188 @@
+package dev.mkopp.mysite.shared.authentication.infrastructure.primary;
+
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs against a stub JWKS endpoint on a local port that can be switched between serving keys and failing.
+ */
+class RefreshAheadJwkSourceTest {
+
+    private static final Duration REFRESH_INTERVAL = Duration.ofMinutes(5);
+    private static final Duration GRACE_PERIOD = Duration.ofMinutes(30);
+
+    @TempDir
+    Path tempDir;
+
+    private HttpServer server;
+    private volatile String jwks;
+    private volatile boolean failing;
+    private final AtomicInteger requests = new AtomicInteger();
+    private final MutableClock clock = new MutableClock(Instant.parse("2025-01-01T12:00:00Z"));
+    private RSAKey key;
+
+    @BeforeEach
+    void startServer() throws Exception {
+        key = new RSAKeyGenerator(2048).keyID("key-1").generate();
+        jwks = new JWKSet(key.toPublicJWK()).toString();
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/certs", exchange -> {
+            requests.incrementAndGet();
+            byte[] body = failing ? new byte[0] : jwks.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(failing ? 503 : 200, body.length > 0 ? body.length : -1);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void fetchesKeysAndPersistsThem() throws Exception {
+        Path cacheFile = tempDir.resolve("jwks.json");
+        try (RefreshAheadJwkSource source = newSource(cacheFile)) {
+            assertThat(source.get(selector("key-1"), null)).extracting(JWK::getKeyID).containsExactly("key-1");
+        }
+
+        assertThat(JWKSet.load(cacheFile.toFile()).getKeyByKeyId("key-1")).isNotNull();
+        assertThat(JWKSet.load(cacheFile.toFile()).getKeyByKeyId("key-1").isPrivate()).isFalse();
+    }
+
+    @Test
+    void coldStartUsesPersistedKeysWhileServerIsDown() throws Exception {
+        Path cacheFile = tempDir.resolve("jwks.json");
+        try (RefreshAheadJwkSource source = newSource(cacheFile)) {
+            source.refresh();
+        }
+
+        failing = true;
+        try (RefreshAheadJwkSource restarted = newSource(cacheFile)) {
+            restarted.start();
+            assertThat(restarted.get(selector("key-1"), null)).hasSize(1);
+        }
+    }
+
+    @Test
+    void cacheFileModifiedInTheFutureIsIgnored() throws Exception {
+        Path cacheFile = tempDir.resolve("jwks.json");
+        try (RefreshAheadJwkSource source = newSource(cacheFile)) {
+            source.refresh();
+        }
+        Files.setLastModifiedTime(cacheFile, FileTime.from(clock.now.plus(Duration.ofDays(365))));
+
+        failing = true;
+        try (RefreshAheadJwkSource restarted = newSource(cacheFile)) {
+            restarted.start();
+            assertThatThrownBy(() -> restarted.get(selector("key-1"), null)).isInstanceOf(KeySourceException.class);
+        }
+    }
+
+    @Test
+    void servesStaleKeysWithinGraceAndRejectsAfterwards() throws Exception {
+        try (RefreshAheadJwkSource source = newSource(null)) {
+            source.refresh();
+            failing = true;
+
+            clock.now = clock.now.plus(REFRESH_INTERVAL).plus(GRACE_PERIOD).minusSeconds(1);
+            assertThat(source.get(selector("key-1"), null)).hasSize(1);
+
+            clock.now = clock.now.plusSeconds(2);
+            assertThatThrownBy(() -> source.get(selector("key-1"), null)).isInstanceOf(KeySourceException.class);
+        }
+    }
+
+    @Test
+    void rejectsWithoutCallingTheServerUntilTheRefreshGapHasPassed() throws Exception {
+        try (RefreshAheadJwkSource source = newSource(null)) {
+            source.refresh();
+            failing = true;
+
+            clock.now = clock.now.plus(REFRESH_INTERVAL).plus(GRACE_PERIOD).plusSeconds(1);
+            assertThatThrownBy(() -> source.get(selector("key-1"), null)).isInstanceOf(KeySourceException.class);
+            assertThatThrownBy(() -> source.get(selector("key-1"), null)).isInstanceOf(KeySourceException.class);
+            assertThat(requests.get()).isEqualTo(2);
+
+            failing = false;
+            clock.now = clock.now.plusSeconds(30);
+            assertThat(source.get(selector("key-1"), null)).hasSize(1);
+            assertThat(requests.get()).isEqualTo(3);
+        }
+    }
+
+    @Test
+    void unknownKeyIdTriggersRefreshForRotatedKeys() throws Exception {
+        try (RefreshAheadJwkSource source = newSource(null)) {
+            source.refresh();
+            RSAKey rotated = new RSAKeyGenerator(2048).keyID("key-2").generate();
+            jwks = new JWKSet(List.of(key.toPublicJWK(), rotated.toPublicJWK())).toString();
+            clock.now = clock.now.plusSeconds(60);
+
+            assertThat(source.get(selector("key-2"), null)).extracting(JWK::getKeyID).containsExactly("key-2");
+            assertThat(requests.get()).isEqualTo(2);
+        }
+    }
+
+    private RefreshAheadJwkSource newSource(Path cacheFile) {
+        URI uri = URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/certs");
+        return new RefreshAheadJwkSource(uri, cacheFile, REFRESH_INTERVAL, GRACE_PERIOD, Duration.ofSeconds(2), clock);
+    }
+
+    private static JWKSelector selector(String keyId) {
+        return new JWKSelector(new JWKMatcher.Builder().keyID(keyId).build());
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private volatile Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}